@@ -1,8 +1,10 @@
 plugins {
     application
+    id("org.graalvm.buildtools.native") version "0.11.1"
 }
 
 repositories {
+    mavenLocal()
     mavenCentral()
     maven {
         name = "sonatype"
@@ -11,8 +13,9 @@ repositories {
 }
 
 dependencies {
-    implementation("com.chrisalbright:ulid:1.0.0")
+    implementation("com.chrisalbright:ulid:1.0.1-SNAPSHOT")
     testImplementation("org.junit.jupiter:junit-jupiter:5.8.1")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 application {
@@ -21,6 +24,26 @@ application {
     applicationName = "ulid"
 }
 
+graalvmNative {
+    // use the native-image of GRAALVM_HOME or JAVA_HOME rather than provisioning a toolchain
+    toolchainDetection.set(false)
+    binaries {
+        named("main") {
+            imageName.set("ulid")
+            mainClass.set("ulid")
+            buildArgs.add("--no-fallback")
+        }
+    }
+    agent {
+        // gradle -Pagent run --args="..." traces reflection and resources, metadataCopy stores what it found
+        metadataCopy {
+            inputTaskNames.add("run")
+            outputDirectories.add("src/main/resources/META-INF/native-image/io.github.chrisalbright/ulid-app")
+            mergeWithExisting.set(true)
+        }
+    }
+}
+
 tasks.named<Test>("test") {
     // Use JUnit Platform for unit tests.
     useJUnitPlatform()
@@ -0,0 +1,356 @@
+package io.github.chrisalbright.ulid;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Decodes newline delimited ULIDs from a stream or a memory mapped file.
+ * <p>
+ * The input is cut into chunks at line boundaries, chunks are parsed on a pool of threads, and their results are
+ * merged back in input order, so the output is the same for any number of threads. Blank lines are skipped; lines
+ * that are not a valid id are reported as such without stopping the run.
+ */
+class StreamDecoder {
+    enum Report {
+        TIMESTAMPS, HISTOGRAM, SUMMARY
+    }
+
+    static final int CHUNK_BYTES = 1 << 22;
+    private static final int LINE_LENGTH = ULID.ENCODED_LENGTH + 1;
+    private static final byte[] INVALID = "invalid\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final Report report;
+    private final long bucketMillis;
+    private final int threads;
+    private final int chunkBytes;
+
+    StreamDecoder(Report report, long bucketMillis, int threads) {
+        this(report, bucketMillis, threads, CHUNK_BYTES);
+    }
+
+    StreamDecoder(Report report, long bucketMillis, int threads, int chunkBytes) {
+        this.report = report;
+        this.bucketMillis = bucketMillis;
+        this.threads = threads;
+        this.chunkBytes = chunkBytes;
+    }
+
+    void decode(FileChannel file, PrintStream out) throws IOException {
+        long size = file.size();
+        run(new Source() {
+            long position;
+
+            @Override
+            public ByteBuffer next() throws IOException {
+                if (position == size) {
+                    return null;
+                }
+                ByteBuffer window = file.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(chunkBytes, size - position));
+                int end = window.limit();
+                if (position + end < size) {
+                    end = lineEnd(window);
+                }
+                position += end;
+                window.limit(end);
+                return window;
+            }
+        }, out);
+    }
+
+    void decode(ReadableByteChannel in, PrintStream out) throws IOException {
+        run(new Source() {
+            byte[] carry = new byte[0];
+            boolean eof;
+
+            @Override
+            public ByteBuffer next() throws IOException {
+                if (eof) {
+                    return null;
+                }
+                ByteBuffer buffer = ByteBuffer.allocate(chunkBytes);
+                buffer.put(carry);
+                while (buffer.hasRemaining()) {
+                    if (in.read(buffer) < 0) {
+                        eof = true;
+                        break;
+                    }
+                }
+                buffer.flip();
+                int end = eof ? buffer.limit() : lineEnd(buffer);
+                carry = Arrays.copyOfRange(buffer.array(), end, buffer.limit());
+                buffer.limit(end);
+                return buffer;
+            }
+        }, out);
+    }
+
+    private interface Source {
+        // the next chunk of whole lines, or null at the end of the input
+        ByteBuffer next() throws IOException;
+    }
+
+    private static int lineEnd(ByteBuffer window) throws IOException {
+        for (int i = window.limit() - 1; i >= 0; i--) {
+            if (window.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        throw new IOException("Line longer than " + window.limit() + " bytes");
+    }
+
+    private void run(Source source, PrintStream out) throws IOException {
+        Merge merge = new Merge(out);
+        ExecutorService decoders = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "ulid-decoder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Deque<Future<Chunk>> pending = new ArrayDeque<>();
+            for (ByteBuffer buffer = source.next(); buffer != null; buffer = source.next()) {
+                ByteBuffer chunk = buffer;
+                pending.add(decoders.submit((Callable<Chunk>) () -> decode(chunk)));
+                if (pending.size() > 2 * threads) {
+                    merge.add(await(pending.poll()));
+                }
+            }
+            while (!pending.isEmpty()) {
+                merge.add(await(pending.poll()));
+            }
+        } finally {
+            decoders.shutdownNow();
+        }
+        merge.finish();
+    }
+
+    private static Chunk await(Future<Chunk> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while decoding", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to decode chunk", e.getCause());
+        }
+    }
+
+    private Chunk decode(ByteBuffer buffer) {
+        int length = buffer.remaining();
+        byte[] src;
+        if (buffer.hasArray()) {
+            src = buffer.array();
+        } else {
+            src = new byte[length];
+            buffer.get(src);
+        }
+        Chunk chunk = new Chunk();
+        int n = length / LINE_LENGTH;
+        if (n * LINE_LENGTH == length && uniform(src, n)
+                && UlidCodec.validate(src, 0, LINE_LENGTH, n).length == 0) {
+            // the common case of one id per line and nothing else, decoded as a column
+            long[] msbs = new long[n];
+            long[] lsbs = new long[n];
+            UlidCodec.decode(src, 0, LINE_LENGTH, msbs, lsbs, 0, n);
+            for (int i = 0; i < n; i++) {
+                chunk.valid(msbs[i], lsbs[i]);
+            }
+            return chunk;
+        }
+        for (int start = 0; start < length; ) {
+            int end = start;
+            while (end < length && src[end] != '\n') {
+                end++;
+            }
+            int stop = end > start && src[end - 1] == '\r' ? end - 1 : end;
+            if (stop > start) {
+                ULID ulid = null;
+                if (stop - start == ULID.ENCODED_LENGTH) {
+                    try {
+                        ulid = ULID.parse(src, start);
+                    } catch (MalformedULIDException | OverflowException e) {
+                        // counted as invalid below
+                    }
+                }
+                if (ulid == null) {
+                    chunk.invalid();
+                } else {
+                    chunk.valid(ulid.msb(), ulid.lsb());
+                }
+            } else {
+                chunk.lines++;
+            }
+            start = end + 1;
+        }
+        return chunk;
+    }
+
+    private static boolean uniform(byte[] src, int n) {
+        for (int i = 1; i <= n; i++) {
+            if (src[i * LINE_LENGTH - 1] != '\n') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The decoded content of one chunk; line numbers are relative to the chunk until merged.
+     */
+    private final class Chunk {
+        final ByteArrayOutputStream text = new ByteArrayOutputStream();
+        final TreeMap<Long, long[]> buckets = new TreeMap<>();
+        long lines;
+        long count;
+        long invalid;
+        long firstInvalid = -1;
+        long outOfOrder;
+        long firstOutOfOrder = -1;
+        long firstLine;
+        ULID first;
+        ULID last;
+        ULID min;
+        ULID max;
+        private long lastBucket = -1;
+        private long[] bucket;
+        private long lastTimestamp = -1;
+        private byte[] formatted;
+
+        void valid(long msb, long lsb) {
+            lines++;
+            count++;
+            long timestamp = msb >>> 16;
+            switch (report) {
+                case TIMESTAMPS:
+                    if (timestamp != lastTimestamp) {
+                        lastTimestamp = timestamp;
+                        formatted = (Instant.ofEpochMilli(timestamp) + "\n").getBytes(StandardCharsets.US_ASCII);
+                    }
+                    text.write(formatted, 0, formatted.length);
+                    break;
+                case HISTOGRAM:
+                    long b = timestamp / bucketMillis;
+                    if (b != lastBucket) {
+                        lastBucket = b;
+                        bucket = buckets.computeIfAbsent(b, k -> new long[1]);
+                    }
+                    bucket[0]++;
+                    break;
+                case SUMMARY:
+                    ULID ulid = ULID.of(msb, lsb);
+                    if (first == null) {
+                        first = min = max = ulid;
+                        firstLine = lines;
+                    } else {
+                        if (ulid.compareTo(last) < 0 && outOfOrder++ == 0) {
+                            firstOutOfOrder = lines;
+                        }
+                        if (ulid.compareTo(min) < 0) {
+                            min = ulid;
+                        } else if (ulid.compareTo(max) > 0) {
+                            max = ulid;
+                        }
+                    }
+                    last = ulid;
+                    break;
+            }
+        }
+
+        void invalid() {
+            lines++;
+            if (invalid++ == 0) {
+                firstInvalid = lines;
+            }
+            if (report == Report.TIMESTAMPS) {
+                text.write(INVALID, 0, INVALID.length);
+            }
+        }
+    }
+
+    /**
+     * Combines chunks in input order and writes the report.
+     */
+    private final class Merge {
+        private final PrintStream out;
+        private final Map<Long, long[]> buckets = new TreeMap<>();
+        private long lines;
+        private long count;
+        private long invalid;
+        private long firstInvalid = -1;
+        private long outOfOrder;
+        private long firstOutOfOrder = -1;
+        private ULID last;
+        private ULID min;
+        private ULID max;
+
+        Merge(PrintStream out) {
+            this.out = out;
+        }
+
+        void add(Chunk chunk) throws IOException {
+            if (report == Report.TIMESTAMPS) {
+                chunk.text.writeTo(out);
+            }
+            for (Map.Entry<Long, long[]> entry : chunk.buckets.entrySet()) {
+                buckets.computeIfAbsent(entry.getKey(), k -> new long[1])[0] += entry.getValue()[0];
+            }
+            if (chunk.invalid > 0 && invalid == 0) {
+                firstInvalid = lines + chunk.firstInvalid;
+            }
+            invalid += chunk.invalid;
+            if (chunk.first != null) {
+                if (last != null && chunk.first.compareTo(last) < 0 && outOfOrder++ == 0) {
+                    firstOutOfOrder = lines + chunk.firstLine;
+                }
+                if (chunk.outOfOrder > 0 && outOfOrder == 0) {
+                    firstOutOfOrder = lines + chunk.firstOutOfOrder;
+                }
+                outOfOrder += chunk.outOfOrder;
+                min = min == null || chunk.min.compareTo(min) < 0 ? chunk.min : min;
+                max = max == null || chunk.max.compareTo(max) > 0 ? chunk.max : max;
+                last = chunk.last;
+            }
+            count += chunk.count;
+            lines += chunk.lines;
+        }
+
+        void finish() {
+            switch (report) {
+                case TIMESTAMPS:
+                    break;
+                case HISTOGRAM:
+                    for (Map.Entry<Long, long[]> entry : buckets.entrySet()) {
+                        out.println(Instant.ofEpochMilli(entry.getKey() * bucketMillis) + " " + entry.getValue()[0]);
+                    }
+                    break;
+                case SUMMARY:
+                    out.println("count " + count);
+                    out.println("invalid " + invalid + (invalid > 0 ? " first at line " + firstInvalid : ""));
+                    out.println("out-of-order " + outOfOrder
+                            + (outOfOrder > 0 ? " first at line " + firstOutOfOrder : ""));
+                    if (min != null) {
+                        out.println("min " + min + " " + Instant.ofEpochMilli(min.timestamp()));
+                        out.println("max " + max + " " + Instant.ofEpochMilli(max.timestamp()));
+                    }
+                    break;
+            }
+            out.flush();
+        }
+    }
+}
@@ -1,18 +1,45 @@
 package io.github.chrisalbright.ulid;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.Date;
+import java.util.Deque;
+import java.util.Locale;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 public class UlidApp implements Consumer<String[]> {
+    static final String USAGE = "usage: ulid [-n count [-o file] [-t threads]]"
+            + " | ulid -d [-i file] [-t threads] [-r timestamps|histogram|summary] [-b millis]"
+            + " | ulid serve (-p port | -u socket) | ulid <ulid>...";
+    static final int BATCH_SIZE = 8192;
+    private static final int LINE_LENGTH = ULID.ENCODED_LENGTH + 1;
 
+    private final InputStream in;
     private final PrintStream out;
     private final Random random;
     private final Supplier<Long> systemTime;
 
     public UlidApp(PrintStream out, Random random, Supplier<Long> systemTime) {
+        this(System.in, out, random, systemTime);
+    }
+
+    public UlidApp(InputStream in, PrintStream out, Random random, Supplier<Long> systemTime) {
+        this.in = in;
         this.out = out;
         this.random = random;
         this.systemTime = systemTime;
@@ -23,6 +50,12 @@ public class UlidApp implements Consumer<String[]> {
         if (args.length == 0) {
             ULID.Generator ulid = new ULID.Generator(random, systemTime);
             this.out.println(ulid.generate());
+        } else if (args[0].equals("-d")) {
+            decode(args);
+        } else if (args[0].equals("serve")) {
+            serve(args);
+        } else if (args[0].startsWith("-")) {
+            bulk(args);
         } else {
             for (String arg : args) {
                 ULID ulid = ULID.parse(arg);
@@ -30,4 +63,203 @@ public class UlidApp implements Consumer<String[]> {
             }
         }
     }
+
+    private void bulk(String[] args) {
+        long count = -1;
+        String file = null;
+        int threads = 1;
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException(USAGE);
+            }
+            switch (args[i]) {
+                case "-n":
+                    count = Long.parseLong(args[i + 1]);
+                    break;
+                case "-o":
+                    file = args[i + 1];
+                    break;
+                case "-t":
+                    threads = Integer.parseInt(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException(USAGE);
+            }
+        }
+        if (count < 0 || threads < 1) {
+            throw new IllegalArgumentException(USAGE);
+        }
+        try {
+            if (file == null) {
+                generate(count, threads, Channels.newChannel(out));
+                out.flush();
+            } else {
+                try (FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    generate(count, threads, channel);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads ids, one per line, from a file or standard input and reports their timestamps, a histogram of ids per
+     * time bucket, or a summary with the count, range and ordering of the input.
+     */
+    private void decode(String[] args) {
+        String file = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        StreamDecoder.Report report = StreamDecoder.Report.TIMESTAMPS;
+        long bucketMillis = 60_000;
+        for (int i = 1; i < args.length; i += 2) {
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException(USAGE);
+            }
+            switch (args[i]) {
+                case "-i":
+                    file = args[i + 1];
+                    break;
+                case "-t":
+                    threads = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-r":
+                    report = StreamDecoder.Report.valueOf(args[i + 1].toUpperCase(Locale.ROOT));
+                    break;
+                case "-b":
+                    bucketMillis = Long.parseLong(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException(USAGE);
+            }
+        }
+        if (threads < 1 || bucketMillis < 1) {
+            throw new IllegalArgumentException(USAGE);
+        }
+        StreamDecoder decoder = new StreamDecoder(report, bucketMillis, threads);
+        try {
+            if (file == null) {
+                decoder.decode(Channels.newChannel(in), out);
+            } else {
+                try (FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.READ)) {
+                    decoder.decode(channel, out);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Leases blocks of ids to local clients until the process is stopped; see {@link UlidServer} for the protocol.
+     */
+    private void serve(String[] args) {
+        if (args.length != 3) {
+            throw new IllegalArgumentException(USAGE);
+        }
+        // a client may lease many blocks within one millisecond, so borrow the next one rather than refuse the request
+        ULID.Generator generator = new ULID.ConcurrentGenerator(random, systemTime::get,
+                OverflowPolicy.BORROW_NEXT_MILLISECOND);
+        try {
+            UlidServer server;
+            switch (args[1]) {
+                case "-p":
+                    server = UlidServer.tcp(Integer.parseInt(args[2]), generator);
+                    break;
+                case "-u":
+                    server = UlidServer.unix(Paths.get(args[2]), generator);
+                    break;
+                default:
+                    throw new IllegalArgumentException(USAGE);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.close();
+                } catch (IOException e) {
+                    // exiting anyway
+                }
+            }));
+            out.println("listening on " + server.address());
+            server.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes {@code count} ids, one per line. Ids are claimed from a single generator in batches, so the output is
+     * monotonic; with more than one thread the batches are encoded in parallel and written back in order. Batches are
+     * generated into msb and lsb columns and encoded with {@link UlidCodec} between preset line separators, so no
+     * {@link ULID} instances are created.
+     */
+    private void generate(long count, int threads, WritableByteChannel channel) throws IOException {
+        ULID.Generator generator = new ULID.Generator(random, systemTime);
+        if (threads == 1) {
+            long[] msbs = new long[BATCH_SIZE];
+            long[] lsbs = new long[BATCH_SIZE];
+            ByteBuffer lines = lines(BATCH_SIZE);
+            for (long remaining = count; remaining > 0; remaining -= BATCH_SIZE) {
+                int n = (int) Math.min(remaining, BATCH_SIZE);
+                generator.generate(msbs, lsbs, 0, n);
+                write(channel, encode(msbs, lsbs, n, lines));
+            }
+            return;
+        }
+        ExecutorService encoders = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "ulid-encoder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Deque<Future<ByteBuffer>> pending = new ArrayDeque<>();
+            for (long remaining = count; remaining > 0; remaining -= BATCH_SIZE) {
+                int n = (int) Math.min(remaining, BATCH_SIZE);
+                long[] msbs = new long[n];
+                long[] lsbs = new long[n];
+                generator.generate(msbs, lsbs, 0, n);
+                pending.add(encoders.submit(() -> encode(msbs, lsbs, n, lines(n))));
+                if (pending.size() > 2 * threads) {
+                    write(channel, await(pending.poll()));
+                }
+            }
+            while (!pending.isEmpty()) {
+                write(channel, await(pending.poll()));
+            }
+        } finally {
+            encoders.shutdownNow();
+        }
+    }
+
+    // room for n lines with their separators already in place, which encoding leaves untouched
+    private static ByteBuffer lines(int n) {
+        byte[] lines = new byte[n * LINE_LENGTH];
+        for (int i = ULID.ENCODED_LENGTH; i < lines.length; i += LINE_LENGTH) {
+            lines[i] = '\n';
+        }
+        return ByteBuffer.wrap(lines);
+    }
+
+    private static ByteBuffer encode(long[] msbs, long[] lsbs, int n, ByteBuffer lines) {
+        UlidCodec.encode(msbs, lsbs, 0, n, lines.array(), 0, LINE_LENGTH);
+        lines.limit(n * LINE_LENGTH).position(0);
+        return lines;
+    }
+
+    private static void write(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static ByteBuffer await(Future<ByteBuffer> batch) throws IOException {
+        try {
+            return batch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while encoding", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to encode batch", e.getCause());
+        }
+    }
 }
@@ -0,0 +1,142 @@
+package io.github.chrisalbright.ulid;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Leases blocks of consecutive ids from one generator to clients on a localhost TCP port or a Unix domain socket.
+ * <p>
+ * A request is a 4 byte big-endian block size from 1 to {@link #MAX_BLOCK}. The response is the same size followed by
+ * the first id of the block in its 16 byte {@link ULID#toBytes()} form; the i-th id of the block is the first plus i,
+ * as an unsigned 128 bit number. Blocks are claimed with {@link ULID.Generator#generateBlock(int)} on a shared
+ * {@link ULID.ConcurrentGenerator}, so every id is issued once and blocks are ordered across all clients. Clients may
+ * pipeline requests; responses come back in request order. A request outside the allowed range, or a block the
+ * generator cannot issue, closes the connection after the responses to the requests before it.
+ */
+class UlidServer implements Closeable {
+    static final int MAX_BLOCK = 1 << 20;
+    static final int REQUEST_BYTES = Integer.BYTES;
+    static final int RESPONSE_BYTES = Integer.BYTES + 2 * Long.BYTES;
+    private static final int BUFFER_BYTES = 4096;
+
+    private final ServerSocketChannel server;
+    private final ULID.Generator generator;
+    private final Path socketFile;
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private final ExecutorService handlers = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "ulid-lease");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private UlidServer(ServerSocketChannel server, ULID.Generator generator, Path socketFile) {
+        this.server = server;
+        this.generator = generator;
+        this.socketFile = socketFile;
+    }
+
+    /**
+     * Listens on {@code port} of the loopback address; port 0 picks a free port.
+     */
+    static UlidServer tcp(int port, ULID.Generator generator) throws IOException {
+        ServerSocketChannel server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        return new UlidServer(server, generator, null);
+    }
+
+    /**
+     * Listens on a Unix domain socket at {@code path}, which must not exist; it is deleted again on {@link #close()}.
+     */
+    static UlidServer unix(Path path, ULID.Generator generator) throws IOException {
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(path));
+        return new UlidServer(server, generator, path);
+    }
+
+    SocketAddress address() throws IOException {
+        return server.getLocalAddress();
+    }
+
+    /**
+     * Accepts connections until the server is closed.
+     */
+    void run() throws IOException {
+        try {
+            while (true) {
+                SocketChannel client = server.accept();
+                connections.add(client);
+                handlers.execute(() -> serve(client));
+            }
+        } catch (AsynchronousCloseException e) {
+            // closed
+        }
+    }
+
+    private void serve(SocketChannel client) {
+        ByteBuffer requests = ByteBuffer.allocate(BUFFER_BYTES);
+        ByteBuffer responses = ByteBuffer.allocate(BUFFER_BYTES / REQUEST_BYTES * RESPONSE_BYTES);
+        try (SocketChannel c = client) {
+            while (c.read(requests) >= 0) {
+                requests.flip();
+                responses.clear();
+                boolean valid = true;
+                while (valid && requests.remaining() >= REQUEST_BYTES) {
+                    int count = requests.getInt();
+                    valid = count >= 1 && count <= MAX_BLOCK;
+                    if (valid) {
+                        try {
+                            // claimed before anything is buffered, so a failed block leaves only complete responses
+                            ULID first = generator.generateBlock(count);
+                            responses.putInt(count);
+                            first.toBytes(responses);
+                        } catch (OverflowException e) {
+                            valid = false;
+                        }
+                    }
+                }
+                requests.compact();
+                responses.flip();
+                while (responses.hasRemaining()) {
+                    c.write(responses);
+                }
+                if (!valid) {
+                    return;
+                }
+            }
+        } catch (ClosedChannelException e) {
+            // closed by the client or by close()
+        } catch (IOException e) {
+            // drops this client only
+        } finally {
+            connections.remove(client);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        for (SocketChannel client : connections) {
+            client.close();
+        }
+        handlers.shutdown();
+        if (socketFile != null) {
+            Files.deleteIfExists(socketFile);
+        }
+    }
+}
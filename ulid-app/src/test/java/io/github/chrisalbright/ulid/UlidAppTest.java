@@ -3,8 +3,21 @@ package io.github.chrisalbright.ulid;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.function.Supplier;
 
@@ -26,4 +39,90 @@ public class UlidAppTest {
 
     }
 
+    @Test
+    public void bulkModeWritesTheSameIdsAsTheGenerator() {
+        final ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(outStream, true);
+        Supplier<Long> sysTime = () -> 0L;
+        ULID.Generator expected = new ULID.Generator(new Random(0), sysTime);
+
+        new UlidApp(out, new Random(0), sysTime).accept(new String[]{"-n", "3"});
+
+        String[] lines = outStream.toString().split("\n");
+        Assertions.assertEquals(3, lines.length);
+        for (String line : lines) {
+            Assertions.assertEquals(expected.generate().toString(), line);
+        }
+    }
+
+    @Test
+    public void parallelBulkModeKeepsIdsInOrder(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("ids.txt");
+        int count = 3 * UlidApp.BATCH_SIZE + 17;
+
+        new UlidApp(System.out, new Random(), System::currentTimeMillis)
+                .accept(new String[]{"-n", String.valueOf(count), "-o", file.toString(), "-t", "3"});
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.US_ASCII);
+        Assertions.assertEquals(count, lines.size());
+        for (int i = 1; i < lines.size(); i++) {
+            Assertions.assertTrue(lines.get(i - 1).compareTo(lines.get(i)) < 0);
+        }
+    }
+
+    @Test
+    public void bulkModeRejectsIncompleteOptions() {
+        UlidApp app = new UlidApp(System.out, new Random(), System::currentTimeMillis);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> app.accept(new String[]{"-n"}));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> app.accept(new String[]{"-x", "1"}));
+    }
+
+    @Test
+    public void decodeModeStreamsTimestampsInInputOrder() {
+        ULID a = ULID.parse("01ARZ3NDEKTSV4RRFFQ69G5FAV");
+        ULID b = ULID.parse("01BX5ZZKBKACTAV9WEVGEMMVRZ");
+        String input = a + "\n\n" + b + "\r\nnot-a-ulid\n" + a;
+        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+
+        new UlidApp(new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII)), new PrintStream(outStream),
+                new Random(), System::currentTimeMillis).accept(new String[]{"-d", "-t", "2"});
+
+        String expected = Instant.ofEpochMilli(a.timestamp()) + "\n" + Instant.ofEpochMilli(b.timestamp())
+                + "\ninvalid\n" + Instant.ofEpochMilli(a.timestamp()) + "\n";
+        Assertions.assertEquals(expected, outStream.toString());
+    }
+
+    @Test
+    public void decodeSummaryIsIndependentOfChunking(@TempDir Path dir) throws IOException {
+        long[] now = {1_000_000L};
+        ULID.Generator generator = new ULID.Generator(new Random(5L), () -> now[0] += 7);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            lines.add(generator.generate().toString());
+        }
+        lines.set(1_000, lines.get(10));
+        lines.set(1_500, "01ARZ3NDEKTSV4RRFFQ69G5FA!");
+        Path file = Files.write(dir.resolve("ids.txt"), lines, StandardCharsets.US_ASCII);
+
+        Map<StreamDecoder.Report, String> expected = new EnumMap<>(StreamDecoder.Report.class);
+        for (int threads = 1; threads <= 3; threads++) {
+            for (int chunkBytes : new int[]{StreamDecoder.CHUNK_BYTES, 27 * 64, 1_000}) {
+                for (StreamDecoder.Report report : StreamDecoder.Report.values()) {
+                    ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+                    try (FileChannel channel = FileChannel.open(file)) {
+                        new StreamDecoder(report, 1_000, threads, chunkBytes).decode(channel, new PrintStream(outStream));
+                    }
+                    expected.putIfAbsent(report, outStream.toString());
+                    Assertions.assertEquals(expected.get(report), outStream.toString());
+                }
+            }
+        }
+        String summary = expected.get(StreamDecoder.Report.SUMMARY);
+        Assertions.assertTrue(summary.startsWith("count 1999\ninvalid 1 first at line 1501\n"
+                + "out-of-order 1 first at line 1001\n"), summary);
+        Assertions.assertTrue(summary.contains("max " + lines.get(1_999)));
+        Assertions.assertEquals(2_000, expected.get(StreamDecoder.Report.TIMESTAMPS).split("\n").length);
+    }
+
 }
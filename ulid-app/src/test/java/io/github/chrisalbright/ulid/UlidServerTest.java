@@ -0,0 +1,182 @@
+package io.github.chrisalbright.ulid;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class UlidServerTest {
+
+    private static Thread start(UlidServer server) {
+        Thread thread = new Thread(() -> {
+            try {
+                server.run();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    // sends all requests at once and returns the first id of each block
+    private static List<ULID> lease(SocketAddress address, int... counts) throws IOException {
+        try (SocketChannel client = SocketChannel.open(address)) {
+            ByteBuffer requests = ByteBuffer.allocate(counts.length * UlidServer.REQUEST_BYTES);
+            for (int count : counts) {
+                requests.putInt(count);
+            }
+            requests.flip();
+            while (requests.hasRemaining()) {
+                client.write(requests);
+            }
+            ByteBuffer responses = ByteBuffer.allocate(counts.length * UlidServer.RESPONSE_BYTES);
+            while (responses.hasRemaining()) {
+                if (client.read(responses) < 0) {
+                    throw new IOException("Closed after " + responses.position() + " bytes");
+                }
+            }
+            responses.flip();
+            List<ULID> firsts = new ArrayList<>();
+            for (int count : counts) {
+                Assertions.assertEquals(count, responses.getInt());
+                firsts.add(ULID.fromBytes(responses));
+            }
+            return firsts;
+        }
+    }
+
+    // sends all requests at once and returns every response byte until the server closes the connection
+    private static ByteBuffer leaseUntilClosed(SocketAddress address, int... counts) throws IOException {
+        try (SocketChannel client = SocketChannel.open(address)) {
+            ByteBuffer requests = ByteBuffer.allocate(counts.length * UlidServer.REQUEST_BYTES);
+            for (int count : counts) {
+                requests.putInt(count);
+            }
+            requests.flip();
+            while (requests.hasRemaining()) {
+                client.write(requests);
+            }
+            ByteBuffer responses = ByteBuffer.allocate(counts.length * UlidServer.RESPONSE_BYTES);
+            while (client.read(responses) >= 0) {
+                // until the server closes the connection
+            }
+            responses.flip();
+            return responses;
+        }
+    }
+
+    @Test
+    public void leasesConsecutiveBlocksOverTcp() throws Exception {
+        ULID[] expected = new ULID[15];
+        new ULID.Generator(new Random(1L), () -> 5L).generate(expected, 0, 15);
+
+        try (UlidServer server = UlidServer.tcp(0, new ULID.ConcurrentGenerator(new Random(1L), () -> 5L))) {
+            start(server);
+            List<ULID> firsts = lease(server.address(), 1, 4, 10);
+            Assertions.assertEquals(expected[0], firsts.get(0));
+            Assertions.assertEquals(expected[1], firsts.get(1));
+            Assertions.assertEquals(expected[5], firsts.get(2));
+        }
+    }
+
+    @Test
+    public void leasesOverUnixSockets(@TempDir Path dir) throws Exception {
+        Path socket = dir.resolve("ulid.sock");
+        try (UlidServer server = UlidServer.unix(socket, new ULID.ConcurrentGenerator(new Random(1L), () -> 5L))) {
+            start(server);
+            List<ULID> firsts = lease(server.address(), 2, 2);
+            Assertions.assertEquals(firsts.get(0).next().next(), firsts.get(1));
+        }
+        Assertions.assertFalse(Files.exists(socket));
+    }
+
+    @Test
+    public void blocksDoNotOverlapAcrossClients() throws Exception {
+        int clients = 4;
+        int requests = 500;
+        try (UlidServer server = UlidServer.tcp(0, new ULID.ConcurrentGenerator(new Random(), System::currentTimeMillis))) {
+            start(server);
+            int[] counts = new int[requests];
+            Arrays.fill(counts, 100);
+            ExecutorService pool = Executors.newFixedThreadPool(clients);
+            try {
+                List<Future<List<ULID>>> leases = new ArrayList<>();
+                for (int i = 0; i < clients; i++) {
+                    leases.add(pool.submit(() -> lease(server.address(), counts)));
+                }
+                List<ULID> firsts = new ArrayList<>();
+                for (Future<List<ULID>> lease : leases) {
+                    List<ULID> own = lease.get(30, TimeUnit.SECONDS);
+                    for (int i = 1; i < own.size(); i++) {
+                        Assertions.assertTrue(own.get(i - 1).compareTo(own.get(i)) < 0);
+                    }
+                    firsts.addAll(own);
+                }
+                firsts.sort(null);
+                for (int i = 1; i < firsts.size(); i++) {
+                    ULID previous = firsts.get(i - 1);
+                    long lsb = previous.lsb() + 99;
+                    long msb = previous.msb() + (Long.compareUnsigned(lsb, previous.lsb()) < 0 ? 1 : 0);
+                    ULID lastOfPrevious = ULID.of(msb, lsb);
+                    Assertions.assertTrue(lastOfPrevious.compareTo(firsts.get(i)) < 0);
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    public void closesConnectionsOnInvalidRequests() throws Exception {
+        try (UlidServer server = UlidServer.tcp(0, new ULID.ConcurrentGenerator(new Random(1L), () -> 5L))) {
+            start(server);
+            Assertions.assertThrows(IOException.class, () -> lease(server.address(), 0));
+            Assertions.assertThrows(IOException.class, () -> lease(server.address(), UlidServer.MAX_BLOCK + 1));
+            Assertions.assertEquals(1, lease(server.address(), UlidServer.MAX_BLOCK).size());
+        }
+    }
+
+    @Test
+    public void answersRequestsBeforeAnInvalidOne() throws Exception {
+        try (UlidServer server = UlidServer.tcp(0, new ULID.ConcurrentGenerator(new Random(1L), () -> 5L))) {
+            start(server);
+            ByteBuffer responses = leaseUntilClosed(server.address(), 2, 3, 0);
+            Assertions.assertEquals(2 * UlidServer.RESPONSE_BYTES, responses.remaining());
+            Assertions.assertEquals(2, responses.getInt(0));
+            Assertions.assertEquals(3, responses.getInt(UlidServer.RESPONSE_BYTES));
+        }
+    }
+
+    @Test
+    public void answersRequestsBeforeOneThatOverflows() throws Exception {
+        Random exhausted = new Random() {
+            @Override
+            public long nextLong() {
+                return -1L;
+            }
+        };
+        try (UlidServer server = UlidServer.tcp(0, new ULID.ConcurrentGenerator(exhausted, () -> 5L))) {
+            start(server);
+            ByteBuffer responses = leaseUntilClosed(server.address(), 1, 1);
+            Assertions.assertEquals(UlidServer.RESPONSE_BYTES, responses.remaining());
+            Assertions.assertEquals(1, responses.getInt());
+            Assertions.assertEquals(ULID.of(5L << 16 | 0xFFFF, -1L), ULID.fromBytes(responses));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+#!/usr/bin/env sh
+# Times the JVM launcher, and the native binary when it has been built, for the generate and parse modes.
+#
+#   gradle installDist [nativeCompile] && ./startup.sh [runs]
+#
+# Each mode is run the given number of times (default 20) and the mean wall time per run is printed in
+# milliseconds. nativeCompile needs a GraalVM native-image; without the binary only the JVM row is printed,
+# so there is nothing to compare it with.
+set -e
+cd "$(dirname "$0")"
+
+runs=${1:-20}
+jvm=build/install/ulid/bin/ulid
+native=build/native/nativeCompile/ulid
+ids=$(mktemp)
+trap 'rm -f "$ids"' EXIT
+
+mean() {
+  start=$(date +%s%N)
+  i=0
+  while [ "$i" -lt "$runs" ]; do
+    "$@" > /dev/null
+    i=$((i + 1))
+  done
+  echo $(( ($(date +%s%N) - start) / runs / 1000000 ))
+}
+
+"$jvm" -n 1000000 -o "$ids"
+id=$(head -n 1 "$ids")
+
+printf '%-8s %10s %10s %16s %16s\n' binary generate parse "generate 1M" "parse 1M"
+for entry in "jvm:$jvm" "native:$native"; do
+  name=${entry%%:*}
+  binary=${entry#*:}
+  if [ ! -x "$binary" ]; then
+    echo "$name: $binary not built, skipped" >&2
+    continue
+  fi
+  printf '%-8s %10s %10s %16s %16s\n' "$name" \
+    "$(mean "$binary")" \
+    "$(mean "$binary" "$id")" \
+    "$(mean "$binary" -n 1000000 -o /dev/null)" \
+    "$(mean "$binary" -d -i "$ids" -r summary)"
+done
@@ -0,0 +1,128 @@
+package io.github.chrisalbright.ulid.bench;
+
+import io.github.chrisalbright.ulid.ULID;
+import io.github.chrisalbright.ulid.UlidCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CodecBenchmark {
+    // a power of two, so the cursor can wrap with a mask
+    private static final int SIZE = 1024;
+
+    private final ULID[] ids = new ULID[SIZE];
+    private final String[] strings = new String[SIZE];
+    private final byte[][] bytes = new byte[SIZE][];
+    private final long[] msbs = new long[SIZE];
+    private final long[] lsbs = new long[SIZE];
+    private final byte[] ascii = new byte[SIZE * ULID.ENCODED_LENGTH];
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        Random r = new Random(42L);
+        long start = System.currentTimeMillis();
+        ULID.Generator generator = new ULID.Generator(r, new Supplier<Long>() {
+            long time = start;
+
+            @Override
+            public Long get() {
+                return time++;
+            }
+        });
+        for (int i = 0; i < SIZE; i++) {
+            ids[i] = generator.generate();
+            strings[i] = ids[i].toString();
+            bytes[i] = ids[i].toBytes();
+            msbs[i] = ids[i].msb();
+            lsbs[i] = ids[i].lsb();
+        }
+        UlidCodec.encode(msbs, lsbs, 0, SIZE, ascii, 0);
+    }
+
+    private int next() {
+        return cursor = (cursor + 1) & (SIZE - 1);
+    }
+
+    @Benchmark
+    public String encodeString() {
+        return ids[next()].toString();
+    }
+
+    @Benchmark
+    public ULID decodeString() {
+        return ULID.parse(strings[next()]);
+    }
+
+    @Benchmark
+    public byte[] encodeBytes() {
+        return ids[next()].toBytes();
+    }
+
+    @Benchmark
+    public ULID decodeBytes() {
+        return ULID.fromBytes(bytes[next()]);
+    }
+
+    @Benchmark
+    public int compareTo() {
+        int i = next();
+        return ids[i].compareTo(ids[(i + 1) & (SIZE - 1)]);
+    }
+
+    @Benchmark
+    public int hashCode() {
+        return ids[next()].hashCode();
+    }
+
+    // the bulk benchmarks handle all SIZE ids per call; compare against SIZE times the single id results
+
+    @Benchmark
+    public byte[] encodeColumn() {
+        byte[] dst = ascii;
+        for (int i = 0; i < SIZE; i++) {
+            ULID.of(msbs[i], lsbs[i]).encode(dst, i * ULID.ENCODED_LENGTH);
+        }
+        return dst;
+    }
+
+    @Benchmark
+    public byte[] encodeColumnBulk() {
+        UlidCodec.encode(msbs, lsbs, 0, SIZE, ascii, 0);
+        return ascii;
+    }
+
+    @Benchmark
+    public long[] decodeColumn() {
+        long[] dst = msbs;
+        for (int i = 0; i < SIZE; i++) {
+            ULID ulid = ULID.parse(ascii, i * ULID.ENCODED_LENGTH);
+            dst[i] = ulid.msb();
+            lsbs[i] = ulid.lsb();
+        }
+        return dst;
+    }
+
+    @Benchmark
+    public long[] decodeColumnBulk() {
+        UlidCodec.decode(ascii, 0, msbs, lsbs, 0, SIZE);
+        return msbs;
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.chrisalbright.ulid.bench;
+
+import io.github.chrisalbright.ulid.ULID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneratorBenchmark {
+
+    @State(Scope.Thread)
+    public static class SingleThreaded {
+        @Param({"SecureRandom", "ThreadLocalRandom"})
+        String random;
+
+        @Param({"PLAIN", "CONCURRENT", "STRIPED"})
+        Generators generator;
+
+        ULID.Generator ulid;
+
+        @Setup
+        public void setup() {
+            ulid = generator.create(Generators.random(random));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        @Param({"SecureRandom", "ThreadLocalRandom"})
+        String random;
+
+        @Param({"CONCURRENT", "STRIPED"})
+        Generators generator;
+
+        ULID.Generator ulid;
+
+        @Setup
+        public void setup() {
+            ulid = generator.create(Generators.random(random));
+        }
+    }
+
+    @Benchmark
+    public ULID generate(SingleThreaded state) {
+        return state.ulid.generate();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ULID generateContended(Shared state) {
+        return state.ulid.generate();
+    }
+}
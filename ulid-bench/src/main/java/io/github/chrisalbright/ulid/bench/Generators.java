@@ -0,0 +1,52 @@
+package io.github.chrisalbright.ulid.bench;
+
+import io.github.chrisalbright.ulid.ULID;
+
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+public enum Generators {
+    PLAIN {
+        @Override
+        public ULID.Generator create(Random r) {
+            return new ULID.Generator(r, System::currentTimeMillis);
+        }
+    },
+    CONCURRENT {
+        @Override
+        public ULID.Generator create(Random r) {
+            return new ULID.ConcurrentGenerator(r, System::currentTimeMillis);
+        }
+    },
+    STRIPED {
+        @Override
+        public ULID.Generator create(Random r) {
+            return new ULID.StripedGenerator(r, System::currentTimeMillis);
+        }
+    };
+
+    public abstract ULID.Generator create(Random r);
+
+    public static Random random(String name) {
+        switch (name) {
+            case "SecureRandom":
+                return new SecureRandom();
+            case "ThreadLocalRandom":
+                // looked up on every call, as a shared instance is only meant for the thread that called current()
+                return new Random() {
+                    @Override
+                    public long nextLong() {
+                        return ThreadLocalRandom.current().nextLong();
+                    }
+
+                    @Override
+                    protected int next(int bits) {
+                        return ThreadLocalRandom.current().nextInt() >>> (Integer.SIZE - bits);
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("Unknown random source " + name);
+        }
+    }
+}
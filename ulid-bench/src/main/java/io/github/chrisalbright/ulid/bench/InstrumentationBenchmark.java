@@ -0,0 +1,55 @@
+package io.github.chrisalbright.ulid.bench;
+
+import io.github.chrisalbright.ulid.GeneratorMetrics;
+import io.github.chrisalbright.ulid.OverflowPolicy;
+import io.github.chrisalbright.ulid.ULID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what a {@link GeneratorMetrics} listener adds to generation, against the same generator without one.
+ * Results are recorded in {@code instrumentation.json} next to the pom, laid out like {@code baseline.json}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InstrumentationBenchmark {
+    @Param({"PLAIN", "CONCURRENT"})
+    Generators generator;
+
+    @Param({"false", "true"})
+    boolean metrics;
+
+    ULID.Generator ulid;
+
+    @Setup
+    public void setup() {
+        GeneratorMetrics listener = metrics ? new GeneratorMetrics() : null;
+        Random r = Generators.random("ThreadLocalRandom");
+        if (generator == Generators.PLAIN) {
+            ulid = new ULID.Generator(r, System::currentTimeMillis, OverflowPolicy.THROW, listener);
+        } else {
+            ulid = new ULID.ConcurrentGenerator(r, System::currentTimeMillis, OverflowPolicy.THROW, listener);
+        }
+    }
+
+    @Benchmark
+    public ULID generate() {
+        return ulid.generate();
+    }
+}
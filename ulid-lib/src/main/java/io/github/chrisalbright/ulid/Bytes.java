@@ -0,0 +1,53 @@
+package io.github.chrisalbright.ulid;
+
+/**
+ * Big-endian reads, writes and comparisons on byte arrays, the hot paths behind {@link Util}, {@link ULID} and
+ * {@link UlidCodec}. This is the Java 8 version; the multi-release jar carries a faster one for newer runtimes under
+ * {@code META-INF/versions}, kept in {@code src/main/java17}. Both must behave identically, which
+ * {@code BytesTest} checks against each.
+ */
+class Bytes {
+
+    private Bytes() {
+    }
+
+    static long getLong(byte[] b, int offset) {
+        checkIndex(b, offset, Long.BYTES);
+        long l = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            l = (l << 8) | (b[i + offset] & 0xFF);
+        }
+        return l;
+    }
+
+    static void putLong(byte[] b, int offset, long l) {
+        checkIndex(b, offset, Long.BYTES);
+        b[offset] = (byte) (l >> 56);
+        b[offset + 1] = (byte) (l >> 48);
+        b[offset + 2] = (byte) (l >> 40);
+        b[offset + 3] = (byte) (l >> 32);
+        b[offset + 4] = (byte) (l >> 24);
+        b[offset + 5] = (byte) (l >> 16);
+        b[offset + 6] = (byte) (l >> 8);
+        b[offset + 7] = (byte) l;
+    }
+
+    /**
+     * Compares the 16 byte ids at the given offsets as unsigned numbers, returning -1, 0 or 1.
+     */
+    static int compareIds(byte[] a, int aOffset, byte[] b, int bOffset) {
+        int cmp = Long.compareUnsigned(getLong(a, aOffset), getLong(b, bOffset));
+        if (cmp != 0) {
+            return cmp;
+        }
+        return Long.compareUnsigned(getLong(a, aOffset + Long.BYTES), getLong(b, bOffset + Long.BYTES));
+    }
+
+    // fails before any byte is written, as the newer version does
+    private static void checkIndex(byte[] b, int offset, int length) {
+        if (offset < 0 || offset > b.length - length) {
+            throw new ArrayIndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + length
+                    + ") out of bounds for length " + b.length);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.chrisalbright.ulid;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * A millisecond clock that a single daemon thread refreshes from a source clock, so readers only load a volatile
+ * long instead of calling {@link System#currentTimeMillis()}.
+ * <p>
+ * The cached value is passed through as read; a source that goes backwards is reported as such, and the
+ * {@link ULID.Generator} keeps its output monotonic. Close the clock to stop the ticker thread; a closed clock reads
+ * the source on every call.
+ */
+public class CachedClock implements LongSupplier, AutoCloseable {
+    private final LongSupplier source;
+    private final long tickNanos;
+    private final Thread ticker;
+    private volatile long now;
+    private volatile boolean running = true;
+
+    public CachedClock() {
+        this(System::currentTimeMillis, 1, TimeUnit.MILLISECONDS);
+    }
+
+    public CachedClock(LongSupplier source, long tick, TimeUnit unit) {
+        if (tick <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.source = source;
+        this.tickNanos = unit.toNanos(tick);
+        this.now = source.getAsLong();
+        this.ticker = new Thread(this::tick, "ulid-cached-clock");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    private void tick() {
+        while (running) {
+            now = source.getAsLong();
+            LockSupport.parkNanos(this, tickNanos);
+        }
+    }
+
+    @Override
+    public long getAsLong() {
+        // once closed the cached value goes stale, so read the source directly
+        return running ? now : source.getAsLong();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(ticker);
+    }
+}
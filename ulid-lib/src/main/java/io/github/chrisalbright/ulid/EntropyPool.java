@@ -0,0 +1,128 @@
+package io.github.chrisalbright.ulid;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * A {@link Random} that hands out bytes pre-drawn from another source, typically a
+ * {@link java.security.SecureRandom}, so a {@link ULID.Generator} does not call into the source on every new
+ * millisecond.
+ * <p>
+ * The pool draws from the source in large {@code nextBytes} calls. The spare buffer is refilled in the background
+ * while the active one is consumed, so generation only waits on the source if it drains a whole buffer before the
+ * refill completes, and a refill that fails in the background is redone on the consuming thread. Unless given an
+ * {@link Executor}, pools share a single daemon thread for their refills. Each byte is handed out once and cleared
+ * after use, so the output keeps the properties of the source.
+ */
+public class EntropyPool extends Random {
+    private static final Executor SHARED_REFILLER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "ulid-entropy-refill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Random source;
+    private final Executor refiller;
+    private byte[] active;
+    private int position;
+    private CompletableFuture<byte[]> spare;
+
+    public EntropyPool(Random source, int poolBytes) {
+        this(source, poolBytes, SHARED_REFILLER);
+    }
+
+    /**
+     * @param refiller runs the background refills, or {@code null} to refill on the consuming thread, which then
+     *                 blocks on the source each time a buffer is drained
+     */
+    public EntropyPool(Random source, int poolBytes, Executor refiller) {
+        if (poolBytes < Long.BYTES || poolBytes % Long.BYTES != 0) {
+            throw new IllegalArgumentException("Pool size must be a positive multiple of " + Long.BYTES + " bytes");
+        }
+        this.source = source;
+        this.refiller = refiller;
+        this.active = new byte[poolBytes];
+        source.nextBytes(active);
+        if (refiller != null) {
+            this.spare = refill(new byte[poolBytes]);
+        }
+    }
+
+    @Override
+    public synchronized long nextLong() {
+        if (active.length - position < Long.BYTES) {
+            swap();
+        }
+        long l = Util.fromBytes(active, position);
+        Util.putLong(active, position, 0L);
+        position += Long.BYTES;
+        return l;
+    }
+
+    @Override
+    protected synchronized int next(int bits) {
+        if (active.length - position < Integer.BYTES) {
+            swap();
+        }
+        int i = 0;
+        for (int b = 0; b < Integer.BYTES; b++) {
+            i = (i << 8) | (active[position] & 0xFF);
+            active[position++] = 0;
+        }
+        return i >>> (Integer.SIZE - bits);
+    }
+
+    @Override
+    public synchronized void nextBytes(byte[] bytes) {
+        int copied = 0;
+        while (copied < bytes.length) {
+            if (position == active.length) {
+                swap();
+            }
+            int n = Math.min(bytes.length - copied, active.length - position);
+            System.arraycopy(active, position, bytes, copied, n);
+            Arrays.fill(active, position, position + n, (byte) 0);
+            position += n;
+            copied += n;
+        }
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        // Random's constructor calls this before the source is assigned
+        if (source != null) {
+            source.setSeed(seed);
+        }
+    }
+
+    private void swap() {
+        byte[] drained = active;
+        if (refiller == null) {
+            source.nextBytes(drained);
+        } else {
+            try {
+                active = spare.get();
+                spare = refill(drained);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for entropy", e);
+            } catch (ExecutionException e) {
+                // the failed refill took its buffer with it, so refill the drained one here and submit a new spare
+                source.nextBytes(drained);
+                spare = refill(new byte[drained.length]);
+            }
+        }
+        position = 0;
+    }
+
+    private CompletableFuture<byte[]> refill(byte[] buffer) {
+        return CompletableFuture.supplyAsync(() -> {
+            source.nextBytes(buffer);
+            return buffer;
+        }, refiller);
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.chrisalbright.ulid;
+
+/**
+ * Receives events from a {@link ULID.Generator}. Every method defaults to doing nothing, so implementations only
+ * override what they record. Calls happen on the generating thread and should return quickly.
+ */
+public interface GeneratorListener {
+    /**
+     * {@code count} ids were issued by a single call.
+     */
+    default void generated(int count) {
+    }
+
+    /**
+     * A call continued the sequence of an earlier millisecond by incrementing the last issued id.
+     */
+    default void incremented() {
+    }
+
+    /**
+     * A call drew fresh randomness, which took {@code nanos}.
+     */
+    default void drewRandom(long nanos) {
+    }
+
+    /**
+     * The clock reported {@code callTime}, which is before the {@code previousTime} it reported earlier.
+     */
+    default void clockRegressed(long callTime, long previousTime) {
+    }
+
+    /**
+     * The clock reported a negative time and the call was rejected with a {@link NegativeCallTimeException}.
+     */
+    default void negativeTime(long callTime) {
+    }
+
+    /**
+     * The ids of a call would not fit in the random portion. The {@link OverflowPolicy} either avoided the overflow or
+     * failed the call with an {@link OverflowException}.
+     */
+    default void nearOverflow() {
+    }
+}
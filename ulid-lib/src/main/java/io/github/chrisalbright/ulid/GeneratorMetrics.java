@@ -0,0 +1,102 @@
+package io.github.chrisalbright.ulid;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link GeneratorListener} that counts events in {@link LongAdder}s, so it can be shared by generators on many
+ * threads, and exposes the totals as a JMX MBean.
+ */
+public class GeneratorMetrics implements GeneratorListener, GeneratorMetricsMBean {
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder increments = new LongAdder();
+    private final LongAdder randomDraws = new LongAdder();
+    private final LongAdder randomDrawNanos = new LongAdder();
+    private final LongAdder clockRegressions = new LongAdder();
+    private final LongAdder negativeTimes = new LongAdder();
+    private final LongAdder nearOverflows = new LongAdder();
+
+    @Override
+    public void generated(int count) {
+        generated.add(count);
+    }
+
+    @Override
+    public void incremented() {
+        increments.increment();
+    }
+
+    @Override
+    public void drewRandom(long nanos) {
+        randomDraws.increment();
+        randomDrawNanos.add(nanos);
+    }
+
+    @Override
+    public void clockRegressed(long callTime, long previousTime) {
+        clockRegressions.increment();
+    }
+
+    @Override
+    public void negativeTime(long callTime) {
+        negativeTimes.increment();
+    }
+
+    @Override
+    public void nearOverflow() {
+        nearOverflows.increment();
+    }
+
+    @Override
+    public long getGenerated() {
+        return generated.sum();
+    }
+
+    @Override
+    public long getIncrements() {
+        return increments.sum();
+    }
+
+    @Override
+    public long getRandomDraws() {
+        return randomDraws.sum();
+    }
+
+    @Override
+    public long getClockRegressions() {
+        return clockRegressions.sum();
+    }
+
+    @Override
+    public long getNegativeTimes() {
+        return negativeTimes.sum();
+    }
+
+    @Override
+    public long getNearOverflows() {
+        return nearOverflows.sum();
+    }
+
+    @Override
+    public long getRandomDrawNanos() {
+        return randomDrawNanos.sum();
+    }
+
+    @Override
+    public double getAverageRandomDrawNanos() {
+        long draws = randomDraws.sum();
+        return draws == 0 ? 0 : (double) randomDrawNanos.sum() / draws;
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server as
+     * {@code io.github.chrisalbright.ulid:type=GeneratorMetrics,name=<name>}.
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName("io.github.chrisalbright.ulid:type=GeneratorMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.chrisalbright.ulid;
+
+public interface GeneratorMetricsMBean {
+    long getGenerated();
+
+    long getIncrements();
+
+    long getRandomDraws();
+
+    long getClockRegressions();
+
+    long getNegativeTimes();
+
+    long getNearOverflows();
+
+    long getRandomDrawNanos();
+
+    double getAverageRandomDrawNanos();
+}
@@ -0,0 +1,103 @@
+package io.github.chrisalbright.ulid;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The highest timestamp a generator may have issued, persisted in a small memory mapped file so that a restarted
+ * {@link ULID.NodeGenerator} resumes strictly after it, even if the clock was set back in between.
+ * <p>
+ * Rather than forcing the file for every new millisecond, the mark leases time ahead: when an issued timestamp passes
+ * the persisted mark, the mark moves to that timestamp plus the lease and is forced to storage before the id is
+ * returned. A longer lease means fewer forced writes, and a restart that skips further ahead.
+ */
+public class HighWaterMark implements Closeable {
+    private static final int MAGIC = 0x554C4857;
+    private static final int FILE_BYTES = 16;
+    private static final int MARK_OFFSET = 8;
+
+    private final long leaseMillis;
+    private final long recovered;
+    private volatile MappedByteBuffer file;
+    private volatile long leased;
+
+    public HighWaterMark(Path path) throws IOException {
+        this(path, 1000);
+    }
+
+    public HighWaterMark(Path path, long leaseMillis) throws IOException {
+        if (leaseMillis < 0) {
+            throw new IllegalArgumentException("Negative lease " + leaseMillis);
+        }
+        this.leaseMillis = leaseMillis;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            this.file = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_BYTES);
+            // the header is forced before the first lease, so a file without one was cut short while being created
+            boolean created = size <= FILE_BYTES && file.getInt(0) == 0;
+            if (created) {
+                file.putLong(MARK_OFFSET, -1);
+                file.putInt(0, MAGIC);
+                file.force();
+            } else if (size != FILE_BYTES || file.getInt(0) != MAGIC) {
+                throw new IllegalStateException(path + " is not a high water mark");
+            }
+        }
+        this.recovered = file.getLong(MARK_OFFSET);
+        this.leased = recovered;
+    }
+
+    /**
+     * Returns the mark found when the file was opened, or -1 for a new file. Ids issued through this mark have later
+     * timestamps.
+     */
+    public long recovered() {
+        return recovered;
+    }
+
+    /**
+     * Returns the timestamp currently persisted.
+     */
+    public long leased() {
+        return leased;
+    }
+
+    /**
+     * Records that ids up to {@code timestamp} are about to be issued, forcing a new lease to storage if needed.
+     */
+    public void issued(long timestamp) {
+        if (timestamp > leased) {
+            lease(timestamp);
+        }
+    }
+
+    private synchronized void lease(long timestamp) {
+        checkOpen();
+        if (timestamp > leased) {
+            long mark = timestamp + leaseMillis;
+            file.putLong(MARK_OFFSET, mark);
+            file.force();
+            leased = mark;
+        }
+    }
+
+    // read without the lock, as generators call this for every id
+    void checkOpen() {
+        if (file == null) {
+            throw new IllegalStateException("High water mark is closed");
+        }
+    }
+
+    /**
+     * Stops leasing. The mapping is released when the mark is garbage collected.
+     */
+    @Override
+    public synchronized void close() {
+        file = null;
+    }
+}
@@ -0,0 +1,7 @@
+package io.github.chrisalbright.ulid;
+
+public class MalformedULIDException extends IllegalArgumentException {
+    public MalformedULIDException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.chrisalbright.ulid;
+
+/**
+ * What a {@link ULID.Generator} does when the 80 bit random portion cannot be incremented any further within the
+ * current millisecond.
+ */
+public enum OverflowPolicy {
+    /**
+     * Throw an {@link OverflowException}.
+     */
+    THROW,
+    /**
+     * Move on to the following millisecond with fresh randomness, ahead of the clock. Later calls keep incrementing
+     * the borrowed millisecond until the clock catches up, so ids stay strictly increasing. A fresh random value that
+     * leaves too little room for a batch has the top bit of its random portion cleared instead.
+     */
+    BORROW_NEXT_MILLISECOND
+}
@@ -1,18 +1,35 @@
 package io.github.chrisalbright.ulid;
 
 import java.io.Serializable;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.Objects;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 public class ULID implements Comparable<ULID>, Serializable {
+    // the value the JVM computed for the 1.0.0 release, pinned so that its serialized ids stay readable
+    private static final long serialVersionUID = 6907229887607611578L;
     public static final long MAX_TIMESTAMP = 0x0000_FFFF_FFFF_FFFFL;
     public static final long ROLLOVER_VALUE = 0xFFFF_FFFF_FFFF_FFFFL;
     public static final long MSB_MASK = 0xFFFFL;
     public static final int BASE32_BITS = 5;
     public static final int BASE32_MASK = 0x1F;
+    public static final int BYTES = 16;
+    public static final int ENCODED_LENGTH = 26;
 
     public static char[] ENCODE_TABLE = new char[]{
             '0', '1', '2', '3', '4', '5', '6', '7',
@@ -21,40 +38,521 @@ public class ULID implements Comparable<ULID>, Serializable {
             'R', 'S', 'T', 'V', 'W', 'X', 'Y', 'Z',
     };
 
+    // maps ASCII to 5 bit values, accepting lower case and the Crockford aliases O, I and L; -1 marks invalid input
+    static final byte[] DECODE_TABLE = new byte[128];
+
+    static {
+        Arrays.fill(DECODE_TABLE, (byte) -1);
+        for (int i = 0; i < ENCODE_TABLE.length; i++) {
+            DECODE_TABLE[ENCODE_TABLE[i]] = (byte) i;
+            DECODE_TABLE[Character.toLowerCase(ENCODE_TABLE[i])] = (byte) i;
+        }
+        DECODE_TABLE['O'] = DECODE_TABLE['o'] = 0;
+        DECODE_TABLE['I'] = DECODE_TABLE['i'] = DECODE_TABLE['L'] = DECODE_TABLE['l'] = 1;
+    }
+
     private final long msb;
     private final long lsb;
+    // the encoded form, kept only for instances a UlidCache memoizes; racy like String.hash, since every thread
+    // stores an equal string
+    private transient String string;
 
+    /**
+     * Generates monotonic ULIDs from a random source and a millisecond clock.
+     * <p>
+     * If the clock reports a time at or before the last one it returned, including when it goes backwards, the
+     * generator keeps incrementing the last issued id instead of drawing new randomness, so ids never decrease.
+     * What happens when those increments exhaust the random portion is set by the {@link OverflowPolicy}.
+     */
     public static class Generator {
-        private final Random r;
-        private final Supplier<Long> systemTime;
+        final Random r;
+        final LongSupplier clock;
+        final OverflowPolicy overflow;
+        final GeneratorListener listener;
         private ULID value;
-        private Long lastCallTime;
+        private long lastCallTime;
+        private long lastClockTime = Long.MIN_VALUE;
+        private long overflows;
 
         public Generator(Random r, Supplier<Long> systemTime) {
+            this(r, (LongSupplier) systemTime::get);
+        }
+
+        public Generator(Random r, LongSupplier clock) {
+            this(r, clock, OverflowPolicy.THROW);
+        }
+
+        public Generator(Random r, LongSupplier clock, OverflowPolicy overflow) {
+            this(r, clock, overflow, null);
+        }
+
+        /**
+         * @param listener notified of generator events, or {@code null} to skip instrumentation entirely
+         */
+        public Generator(Random r, LongSupplier clock, OverflowPolicy overflow, GeneratorListener listener) {
             this.r = r;
-            this.systemTime = systemTime;
+            this.clock = clock;
+            this.overflow = overflow;
+            this.listener = listener;
             this.lastCallTime = Long.MIN_VALUE;
         }
 
-        private ULID next() {
-            value = value.next();
-            return value;
+        /**
+         * Returns how many calls found that their ids would not fit in the random portion, either after the last issued
+         * id or after fresh randomness. With {@link OverflowPolicy#THROW} those calls failed; with
+         * {@link OverflowPolicy#BORROW_NEXT_MILLISECOND} they moved to a later millisecond or cleared the top bit of
+         * the random portion. Each is also reported to the listener as {@link GeneratorListener#nearOverflow()}.
+         */
+        public long overflows() {
+            return overflows;
         }
 
-        private ULID generate(long ts) {
-            value = new ULID(ts, r.nextLong(), r.nextLong());
-            return value;
+        public ULID generate() {
+            return reserve(1);
         }
 
-        public ULID generate() {
-            long callTime = systemTime.get();
-            if (callTime == lastCallTime) {
-                return next();
-            } else if (callTime < 0) {
+        /**
+         * Fills {@code dst} with {@code count} consecutive ids, reading the clock and drawing randomness at most once.
+         */
+        public void generate(ULID[] dst, int offset, int count) {
+            checkBatch(dst.length, offset, count);
+            if (count == 0) {
+                return;
+            }
+            ULID first = reserve(count);
+            long msb = first.msb;
+            long lsb = first.lsb;
+            for (int i = offset; i < offset + count; i++) {
+                dst[i] = new ULID(msb, lsb);
+                if (++lsb == 0) {
+                    msb++;
+                }
+            }
+        }
+
+        /**
+         * Fills the {@code msbs} and {@code lsbs} columns with {@code count} consecutive ids without creating
+         * {@link ULID} instances.
+         */
+        public void generate(long[] msbs, long[] lsbs, int offset, int count) {
+            checkBatch(Math.min(msbs.length, lsbs.length), offset, count);
+            if (count == 0) {
+                return;
+            }
+            ULID first = reserve(count);
+            long msb = first.msb;
+            long lsb = first.lsb;
+            for (int i = offset; i < offset + count; i++) {
+                msbs[i] = msb;
+                lsbs[i] = lsb;
+                if (++lsb == 0) {
+                    msb++;
+                }
+            }
+        }
+
+        /**
+         * Writes {@code count} consecutive ids as msb, lsb pairs at the buffer's position and advances it.
+         */
+        public void generate(LongBuffer dst, int count) {
+            if (count < 0) {
+                throw new IllegalArgumentException("Negative count " + count);
+            }
+            if (dst.remaining() / 2 < count) {
+                throw new BufferOverflowException();
+            }
+            if (count == 0) {
+                return;
+            }
+            ULID first = reserve(count);
+            long msb = first.msb;
+            long lsb = first.lsb;
+            for (int i = 0; i < count; i++) {
+                dst.put(msb).put(lsb);
+                if (++lsb == 0) {
+                    msb++;
+                }
+            }
+        }
+
+        /**
+         * Claims a block of {@code count} consecutive ids and returns the first, without materializing the rest: the
+         * i-th id of the block is the first plus i, as an unsigned 128 bit number.
+         */
+        public ULID generateBlock(int count) {
+            if (count < 1) {
+                throw new IllegalArgumentException("Block of " + count + " ids");
+            }
+            return reserve(count);
+        }
+
+        /**
+         * Claims {@code count} consecutive ids and returns the first; the generator continues after the last.
+         */
+        ULID reserve(int count) {
+            long callTime = clock.getAsLong();
+            if (listener != null) {
+                observeClock(callTime);
+            }
+            if (callTime < 0) {
                 throw new NegativeCallTimeException(String.format("Negative time value %d is not supported", callTime));
             }
-            lastCallTime = callTime;
-            return generate(callTime);
+            boolean near = callTime <= lastCallTime && !value.hasRoom(count, 0);
+            if (near && overflow == OverflowPolicy.THROW) {
+                throw overflowed("Unable to increment random portion of MSB");
+            }
+            if (callTime <= lastCallTime && !near) {
+                ULID first = value.next();
+                value = first.plus(count - 1);
+                if (listener != null) {
+                    listener.incremented();
+                    listener.generated(count);
+                }
+                return first;
+            }
+            lastCallTime = near ? lastCallTime + 1 : callTime;
+            long start = listener != null ? System.nanoTime() : 0;
+            ULID first = new ULID(lastCallTime, r.nextLong(), r.nextLong());
+            long drawNanos = listener != null ? System.nanoTime() - start : 0;
+            if (!first.hasRoom(count - 1, 0)) {
+                if (overflow == OverflowPolicy.THROW) {
+                    throw overflowed("Unable to increment random portion of MSB");
+                }
+                first = first.withHeadroom(0);
+                near = true;
+            }
+            value = first.plus(count - 1);
+            if (near) {
+                overflows++;
+            }
+            if (listener != null) {
+                listener.drewRandom(drawNanos);
+                if (near) {
+                    listener.nearOverflow();
+                }
+                listener.generated(count);
+            }
+            return first;
+        }
+
+        // counts a call whose ids do not fit under the THROW policy, which then fails
+        private OverflowException overflowed(String message) {
+            overflows++;
+            if (listener != null) {
+                listener.nearOverflow();
+            }
+            return new OverflowException(message);
+        }
+
+        private void observeClock(long callTime) {
+            if (callTime < 0) {
+                listener.negativeTime(callTime);
+            } else if (callTime < lastClockTime) {
+                listener.clockRegressed(callTime, lastClockTime);
+            } else {
+                lastClockTime = callTime;
+            }
+        }
+
+        private static void checkBatch(int length, int offset, int count) {
+            if (count < 0) {
+                throw new IllegalArgumentException("Negative count " + count);
+            }
+            if (offset < 0 || length - offset < count) {
+                throw new IndexOutOfBoundsException("No room for " + count + " ids at offset " + offset);
+            }
+        }
+    }
+
+    /**
+     * A {@link Generator} that may be shared between threads without external locking.
+     * <p>
+     * The last issued value is held in an {@link AtomicReference} and advanced with compare-and-set, so the
+     * timestamp and the 80 bit counter always move together. A call time at or before the last issued timestamp
+     * increments the last value, which keeps the output monotonic even when threads observe the clock out of order.
+     */
+    public static class ConcurrentGenerator extends Generator {
+        private final AtomicReference<ULID> last = new AtomicReference<>();
+        private final LongAdder overflows = new LongAdder();
+        private final int stripeBits;
+        private final long stripe;
+        // only maintained with a listener; threads reading the clock out of order may report small regressions
+        private volatile long lastClockTime = Long.MIN_VALUE;
+
+        public ConcurrentGenerator(Random r, Supplier<Long> systemTime) {
+            this(r, (LongSupplier) systemTime::get);
+        }
+
+        public ConcurrentGenerator(Random r, LongSupplier clock) {
+            this(r, clock, OverflowPolicy.THROW);
+        }
+
+        public ConcurrentGenerator(Random r, LongSupplier clock, OverflowPolicy overflow) {
+            this(r, clock, overflow, null);
+        }
+
+        public ConcurrentGenerator(Random r, LongSupplier clock, OverflowPolicy overflow, GeneratorListener listener) {
+            this(r, clock, overflow, listener, 0, 0);
+        }
+
+        private ConcurrentGenerator(Random r, LongSupplier clock, OverflowPolicy overflow, GeneratorListener listener,
+                                    int stripeBits, int stripe) {
+            super(r, clock, overflow, listener);
+            this.stripeBits = stripeBits;
+            this.stripe = stripe;
+        }
+
+        @Override
+        public long overflows() {
+            return overflows.sum();
+        }
+
+        @Override
+        ULID reserve(int count) {
+            long callTime = clock.getAsLong();
+            if (listener != null) {
+                observeClock(callTime);
+            }
+            if (callTime < 0) {
+                throw new NegativeCallTimeException(String.format("Negative time value %d is not supported", callTime));
+            }
+            // a drawn value stays usable across retries as long as it is not before the millisecond now required;
+            // the listener only hears about the attempt whose compare-and-set succeeds
+            ULID drawn = null;
+            boolean drawnNear = false;
+            long drawNanos = 0;
+            while (true) {
+                ULID current = last.get();
+                ULID first;
+                boolean near;
+                boolean fresh = true;
+                if (current == null || callTime > current.timestamp()) {
+                    if (drawn == null || drawn.timestamp() < callTime) {
+                        long start = listener != null ? System.nanoTime() : 0;
+                        drawn = draw(callTime);
+                        drawNanos = listener != null ? System.nanoTime() - start : 0;
+                        drawnNear = !drawn.hasRoom(count - 1, stripeBits);
+                    }
+                    first = drawn;
+                    near = drawnNear || first.timestamp() != callTime;
+                } else if (current.hasRoom(count, stripeBits)) {
+                    first = current.next();
+                    near = false;
+                    fresh = false;
+                } else if (overflow == OverflowPolicy.THROW) {
+                    throw overflowed();
+                } else {
+                    if (drawn == null || drawn.timestamp() <= current.timestamp()) {
+                        long start = listener != null ? System.nanoTime() : 0;
+                        drawn = draw(current.timestamp() + 1);
+                        drawNanos = listener != null ? System.nanoTime() - start : 0;
+                        drawnNear = !drawn.hasRoom(count - 1, stripeBits);
+                    }
+                    first = drawn;
+                    near = true;
+                }
+                if (fresh && drawnNear) {
+                    if (overflow == OverflowPolicy.THROW) {
+                        throw overflowed();
+                    }
+                    first = first.withHeadroom(stripeBits);
+                }
+                ULID end = first.plus(count - 1);
+                if (stripeOf(end) != stripe) {
+                    throw new OverflowException("Unable to increment random portion of partition " + stripe);
+                }
+                if (last.compareAndSet(current, end)) {
+                    if (near) {
+                        overflows.increment();
+                    }
+                    if (listener != null) {
+                        if (fresh) {
+                            listener.drewRandom(drawNanos);
+                        } else {
+                            listener.incremented();
+                        }
+                        if (near) {
+                            listener.nearOverflow();
+                        }
+                        listener.generated(count);
+                    }
+                    return first;
+                }
+            }
+        }
+
+        private void observeClock(long callTime) {
+            long previous = lastClockTime;
+            if (callTime < 0) {
+                listener.negativeTime(callTime);
+            } else if (callTime < previous) {
+                listener.clockRegressed(callTime, previous);
+            } else if (callTime > previous) {
+                lastClockTime = callTime;
+            }
+        }
+
+        private ULID draw(long ts) {
+            long random = r.nextLong() & (MSB_MASK >>> stripeBits) | (stripe << (16 - stripeBits));
+            return new ULID(ts, random, r.nextLong());
+        }
+
+        // counts a call whose ids do not fit under the THROW policy, which then fails
+        private OverflowException overflowed() {
+            overflows.increment();
+            if (listener != null) {
+                listener.nearOverflow();
+            }
+            return new OverflowException("Unable to increment random portion of partition " + stripe);
+        }
+
+        private long stripeOf(ULID u) {
+            return (u.msb & MSB_MASK) >>> (16 - stripeBits);
+        }
+    }
+
+    /**
+     * A {@link Generator} that spreads threads over independent {@link ConcurrentGenerator} stripes, so producers
+     * on different cores do not contend on the same state.
+     * <p>
+     * The stripe index is written into the high bits of the random portion, which keeps ids unique across stripes.
+     * Each stripe is strictly monotonic, and because the timestamp leads the id, ids from a later millisecond always
+     * sort after ids from an earlier one. Ids from different stripes within the same millisecond are not ordered
+     * relative to each other.
+     * <p>
+     * Every stripe draws from the one {@code Random} it is given, and a plain {@link Random} updates a single shared
+     * seed on each draw. To keep the draws free of shared writes as well, pass a {@code Random} that forwards each call
+     * to {@link java.util.concurrent.ThreadLocalRandom#current()}. Do not pass the instance {@code current()} returned
+     * to the constructing thread, as it is only meant to be used by that thread.
+     */
+    public static class StripedGenerator extends Generator {
+        public static final int MAX_STRIPES = 256;
+
+        private final ConcurrentGenerator[] stripes;
+        private final AtomicInteger nextStripe = new AtomicInteger();
+        private final ThreadLocal<ConcurrentGenerator> threadStripe;
+
+        public StripedGenerator(Random r, Supplier<Long> systemTime) {
+            this(r, (LongSupplier) systemTime::get);
+        }
+
+        public StripedGenerator(Random r, Supplier<Long> systemTime, int stripeCount) {
+            this(r, (LongSupplier) systemTime::get, stripeCount);
+        }
+
+        public StripedGenerator(Random r, LongSupplier clock) {
+            this(r, clock, Math.min(Runtime.getRuntime().availableProcessors(), MAX_STRIPES));
+        }
+
+        public StripedGenerator(Random r, LongSupplier clock, int stripeCount) {
+            this(r, clock, stripeCount, OverflowPolicy.THROW);
+        }
+
+        public StripedGenerator(Random r, LongSupplier clock, int stripeCount, OverflowPolicy overflow) {
+            this(r, clock, stripeCount, overflow, null);
+        }
+
+        /**
+         * @param listener shared by all stripes, so it must tolerate concurrent calls
+         */
+        public StripedGenerator(Random r, LongSupplier clock, int stripeCount, OverflowPolicy overflow,
+                                GeneratorListener listener) {
+            super(r, clock, overflow, listener);
+            if (stripeCount < 1 || stripeCount > MAX_STRIPES) {
+                throw new IllegalArgumentException("Stripe count must be between 1 and " + MAX_STRIPES);
+            }
+            int stripeBits = Integer.SIZE - Integer.numberOfLeadingZeros(stripeCount - 1);
+            this.stripes = new ConcurrentGenerator[1 << stripeBits];
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i] = new ConcurrentGenerator(r, clock, overflow, listener, stripeBits, i);
+            }
+            this.threadStripe = ThreadLocal.withInitial(() -> stripes[nextStripe.getAndIncrement() & (stripes.length - 1)]);
+        }
+
+        public int stripes() {
+            return stripes.length;
+        }
+
+        @Override
+        public long overflows() {
+            long sum = 0;
+            for (ConcurrentGenerator stripe : stripes) {
+                sum += stripe.overflows();
+            }
+            return sum;
+        }
+
+        @Override
+        ULID reserve(int count) {
+            return threadStripe.get().reserve(count);
+        }
+    }
+
+    /**
+     * A {@link ConcurrentGenerator} for one of several independent instances, identified by a node id held in the
+     * high bits of the random portion of the msb, so instances never issue the same id without coordinating.
+     * <p>
+     * With a {@link HighWaterMark}, every issued timestamp is recorded before the id is returned, and the clock is
+     * held at or after the mark found on startup, so ids issued after a restart sort after every id issued before it,
+     * even if the clock went backwards in between.
+     */
+    public static class NodeGenerator extends ConcurrentGenerator {
+        public static final int MAX_NODE_BITS = 15;
+
+        private final int node;
+        private final HighWaterMark mark;
+
+        public NodeGenerator(Random r, LongSupplier clock, int nodeBits, int node) {
+            this(r, clock, nodeBits, node, null);
+        }
+
+        public NodeGenerator(Random r, LongSupplier clock, int nodeBits, int node, HighWaterMark mark) {
+            this(r, clock, nodeBits, node, mark, OverflowPolicy.THROW, null);
+        }
+
+        /**
+         * @param mark persists issued timestamps across restarts, or {@code null} to rely on the clock alone
+         */
+        public NodeGenerator(Random r, LongSupplier clock, int nodeBits, int node, HighWaterMark mark,
+                             OverflowPolicy overflow, GeneratorListener listener) {
+            super(r, resumeAfter(clock, mark), overflow, listener, checkNodeBits(nodeBits), node);
+            if (node < 0 || node >= 1 << nodeBits) {
+                throw new IllegalArgumentException("Node " + node + " does not fit in " + nodeBits + " bits");
+            }
+            this.node = node;
+            this.mark = mark;
+        }
+
+        public int node() {
+            return node;
+        }
+
+        @Override
+        ULID reserve(int count) {
+            if (mark != null) {
+                // fail before the generator moves on, rather than after the ids are claimed
+                mark.checkOpen();
+            }
+            ULID first = super.reserve(count);
+            if (mark != null) {
+                mark.issued(first.plus(count - 1).timestamp());
+            }
+            return first;
+        }
+
+        private static LongSupplier resumeAfter(LongSupplier clock, HighWaterMark mark) {
+            if (mark == null || mark.recovered() < 0) {
+                return clock;
+            }
+            long floor = mark.recovered() + 1;
+            return () -> Math.max(clock.getAsLong(), floor);
+        }
+
+        private static int checkNodeBits(int nodeBits) {
+            if (nodeBits < 1 || nodeBits > MAX_NODE_BITS) {
+                throw new IllegalArgumentException("Node bits must be between 1 and " + MAX_NODE_BITS);
+            }
+            return nodeBits;
         }
     }
 
@@ -75,12 +573,28 @@ public class ULID implements Comparable<ULID>, Serializable {
     }
 
     public byte[] toBytes() {
-        byte[] bytes = new byte[16];
-        System.arraycopy(Util.toBytes(msb), 0, bytes, 0, 8);
-        System.arraycopy(Util.toBytes(lsb), 0, bytes, 8, 8);
+        byte[] bytes = new byte[BYTES];
+        toBytes(bytes, 0);
         return bytes;
     }
 
+    public void toBytes(byte[] dst, int offset) {
+        Util.putLong(dst, offset, msb);
+        Util.putLong(dst, offset + Long.BYTES, lsb);
+    }
+
+    /**
+     * Writes the 16 byte big-endian form at the buffer's position and advances it, regardless of the buffer's
+     * byte order.
+     */
+    public void toBytes(ByteBuffer dst) {
+        if (dst.order() == ByteOrder.BIG_ENDIAN) {
+            dst.putLong(msb).putLong(lsb);
+        } else {
+            dst.putLong(Long.reverseBytes(msb)).putLong(Long.reverseBytes(lsb));
+        }
+    }
+
     public ULID next() {
         boolean incrementMSB = lsb == ROLLOVER_VALUE;
         long nextMsb = msb;
@@ -94,6 +608,34 @@ public class ULID implements Comparable<ULID>, Serializable {
         return new ULID(nextMsb, nextLsb);
     }
 
+    // whether n increments fit below the highest value of the random portion, excluding its top reservedBits
+    private boolean hasRoom(long n, int reservedBits) {
+        long counterMask = MSB_MASK >>> reservedBits;
+        return (msb & counterMask) != counterMask || Long.compareUnsigned(lsb, -1L - n) <= 0;
+    }
+
+    // clears the top bit of the random portion below the reservedBits stripe or node bits, leaving room for at least
+    // 2^(79 - reservedBits) increments
+    private ULID withHeadroom(int reservedBits) {
+        return new ULID(msb & ~(1L << (15 - reservedBits)), lsb);
+    }
+
+    // the id n increments after this one, with the same overflow rule as next()
+    private ULID plus(long n) {
+        if (n == 0) {
+            return this;
+        }
+        long nextLsb = lsb + n;
+        long nextMsb = msb;
+        if (Long.compareUnsigned(nextLsb, lsb) < 0) {
+            if ((msb & 0xFFFF) == 0xFFFF) {
+                throw new OverflowException("Unable to increment random portion of MSB");
+            }
+            nextMsb += 1;
+        }
+        return new ULID(nextMsb, nextLsb);
+    }
+
     public long timestamp() {
         return msb >>> 16;
     }
@@ -109,8 +651,59 @@ public class ULID implements Comparable<ULID>, Serializable {
     @Override
     public int compareTo(ULID o) {
         Objects.requireNonNull(o);
-        int cmp = Long.compare(msb, o.msb);
-        return cmp == 0 ? Long.compare(lsb, o.lsb) : cmp;
+        return compare(msb, lsb, o.msb, o.lsb);
+    }
+
+    /**
+     * Compares this id with the 16 byte form at {@code offset}, without decoding it.
+     */
+    public int compareTo(byte[] bytes, int offset) {
+        return compare(msb, lsb, Util.fromBytes(bytes, offset), Util.fromBytes(bytes, offset + Long.BYTES));
+    }
+
+    // unsigned 128 bit order, which is the order of the string and byte forms
+    private static int compare(long msb1, long lsb1, long msb2, long lsb2) {
+        int cmp = Long.compareUnsigned(msb1, msb2);
+        return cmp == 0 ? Long.compareUnsigned(lsb1, lsb2) : cmp;
+    }
+
+    /**
+     * Compares two 16 byte forms in place, in the same order as {@link #compareTo(ULID)}.
+     */
+    public static int compare(byte[] a, int aOffset, byte[] b, int bOffset) {
+        return Bytes.compareIds(a, aOffset, b, bOffset);
+    }
+
+    /**
+     * Compares two 16 byte forms at absolute indexes, in the same order as {@link #compareTo(ULID)}. Positions are
+     * not changed and the byte order of the buffers is ignored, so views over mapped or foreign memory compare
+     * without copying.
+     */
+    public static int compare(ByteBuffer a, int aIndex, ByteBuffer b, int bIndex) {
+        int cmp = Long.compareUnsigned(bigEndianLong(a, aIndex), bigEndianLong(b, bIndex));
+        if (cmp != 0) {
+            return cmp;
+        }
+        return Long.compareUnsigned(bigEndianLong(a, aIndex + Long.BYTES), bigEndianLong(b, bIndex + Long.BYTES));
+    }
+
+    private static long bigEndianLong(ByteBuffer buffer, int index) {
+        long l = buffer.getLong(index);
+        return buffer.order() == ByteOrder.BIG_ENDIAN ? l : Long.reverseBytes(l);
+    }
+
+    /**
+     * Orders 16 byte arrays holding {@link #toBytes()} output.
+     */
+    public static Comparator<byte[]> bytesComparator() {
+        return (a, b) -> compare(a, 0, b, 0);
+    }
+
+    /**
+     * Orders buffers by the 16 byte form at their current positions.
+     */
+    public static Comparator<ByteBuffer> bufferComparator() {
+        return (a, b) -> compare(a, a.position(), b, b.position());
     }
 
     @Override
@@ -123,21 +716,64 @@ public class ULID implements Comparable<ULID>, Serializable {
 
     @Override
     public int hashCode() {
-        return Objects.hash(msb, lsb);
+        // same value as Objects.hash(msb, lsb), without boxing or a varargs array
+        return 31 * (31 + Long.hashCode(msb)) + Long.hashCode(lsb);
     }
 
     @Override
     public String toString() {
-        char[] data = new char[26];
+        String s = string;
+        if (s == null) {
+            char[] data = new char[ENCODED_LENGTH];
+            encode(data, 0);
+            s = new String(data);
+        }
+        return s;
+    }
+
+    // makes toString() return s, which must be the encoded form of this id
+    void memoize(String s) {
+        string = s;
+    }
+
+    public void encode(char[] dst, int offset) {
+        if (offset < 0 || dst.length - offset < ENCODED_LENGTH) {
+            throw new IndexOutOfBoundsException("No room for " + ENCODED_LENGTH + " characters at offset " + offset);
+        }
         // extract timestamp from msb
-        base32Encode(msb >>> 16, 10, data, 0);
+        base32Encode(msb >>> 16, 10, dst, offset);
         // remaining data is 80 random bits, 16 in the low part of the msb, and 64 in the lsb
         // shift these bits into one spot to make the encoding easier
-        base32Encode((msb & 0xFFFFL) << 24 | (lsb >>> 40), 8, data, 10);
+        base32Encode((msb & 0xFFFFL) << 24 | (lsb >>> 40), 8, dst, offset + 10);
         // The remaining 40 random bits are in the lsb
-        base32Encode(lsb, 8, data, 18);
+        base32Encode(lsb, 8, dst, offset + 18);
+    }
 
-        return new String(data);
+    public void encode(byte[] dst, int offset) {
+        if (offset < 0 || dst.length - offset < ENCODED_LENGTH) {
+            throw new IndexOutOfBoundsException("No room for " + ENCODED_LENGTH + " bytes at offset " + offset);
+        }
+        base32Encode(msb >>> 16, 10, dst, offset);
+        base32Encode((msb & 0xFFFFL) << 24 | (lsb >>> 40), 8, dst, offset + 10);
+        base32Encode(lsb, 8, dst, offset + 18);
+    }
+
+    /**
+     * Writes the 26 character ASCII form at the buffer's position and advances it.
+     */
+    public void encode(ByteBuffer dst) {
+        if (dst.remaining() < ENCODED_LENGTH) {
+            throw new BufferOverflowException();
+        }
+        int position = dst.position();
+        if (dst.hasArray()) {
+            encode(dst.array(), dst.arrayOffset() + position);
+        } else {
+            base32Encode(msb >>> 16, 10, dst, position);
+            base32Encode((msb & 0xFFFFL) << 24 | (lsb >>> 40), 8, dst, position + 10);
+            base32Encode(lsb, 8, dst, position + 18);
+        }
+        dst.position(position + ENCODED_LENGTH);
     }
 
     private static void base32Encode(long l, int blocks, char[] buffer, int offset) {
@@ -149,152 +785,163 @@ public class ULID implements Comparable<ULID>, Serializable {
         }
     }
 
-    private static long base32Decode(String s) {
-        long v = 0;
-        char[] chars = s.toCharArray();
-        final int length = chars.length;
-        for (int i = 0; i < length; i++) {
-            switch (chars[i]) {
-                case '0':
-                case 'O':
-                case 'o':
-                    v |= (long) 0 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case '1':
-                case 'I':
-                case 'i':
-                case 'L':
-                case 'l':
-                    v |= (long) 1 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case '2':
-                    v |= (long) 2 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case '3':
-                    v |= (long) 3 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case '4':
-                    v |= (long) 4 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case '5':
-                    v |= (long) 5 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case '6':
-                    v |= (long) 6 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case '7':
-                    v |= (long) 7 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case '8':
-                    v |= (long) 8 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case '9':
-                    v |= (long) 9 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case 'A':
-                case 'a':
-                    v |= (long) 10 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case 'B':
-                case 'b':
-                    v |= (long) 11 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case 'C':
-                case 'c':
-                    v |= (long) 12 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case 'D':
-                case 'd':
-                    v |= (long) 13 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case 'E':
-                case 'e':
-                    v |= (long) 14 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case 'F':
-                case 'f':
-                    v |= (long) 15 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case 'G':
-                case 'g':
-                    v |= (long) 16 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case 'H':
-                case 'h':
-                    v |= (long) 17 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case 'J':
-                case 'j':
-                    v |= (long) 18 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case 'K':
-                case 'k':
-                    v |= (long) 19 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case 'M':
-                case 'm':
-                    v |= (long) 20 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case 'N':
-                case 'n':
-                    v |= (long) 21 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case 'P':
-                case 'p':
-                    v |= (long) 22 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case 'Q':
-                case 'q':
-                    v |= (long) 23 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case 'R':
-                case 'r':
-                    v |= (long) 24 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case 'S':
-                case 's':
-                    v |= (long) 25 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case 'T':
-                case 't':
-                    v |= (long) 26 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case 'V':
-                case 'v':
-                    v |= (long) 27 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case 'W':
-                case 'w':
-                    v |= (long) 28 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case 'X':
-                case 'x':
-                    v |= (long) 29 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case 'Y':
-                case 'y':
-                    v |= (long) 30 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-                case 'Z':
-                case 'z':
-                    v |= (long) 31 << ((length - 1 - i) * BASE32_BITS);
-                    break;
-            }
-        }
-
-        return v;
+    private static void base32Encode(long l, int blocks, byte[] buffer, int offset) {
+        final int bitsToEncode = (blocks - 1) * BASE32_BITS;
+        for (int i = 0; i <= bitsToEncode; i += BASE32_BITS) {
+            int shift = bitsToEncode - i;
+            int index = (int) (l >>> shift) & BASE32_MASK;
+            buffer[offset + i / BASE32_BITS] = (byte) ENCODE_TABLE[index];
+        }
+    }
+
+    private static void base32Encode(long l, int blocks, ByteBuffer buffer, int offset) {
+        final int bitsToEncode = (blocks - 1) * BASE32_BITS;
+        for (int i = 0; i <= bitsToEncode; i += BASE32_BITS) {
+            int shift = bitsToEncode - i;
+            int index = (int) (l >>> shift) & BASE32_MASK;
+            buffer.put(offset + i / BASE32_BITS, (byte) ENCODE_TABLE[index]);
+        }
+    }
+
+    private static int base32Value(int c) {
+        return (c & ~0x7F) == 0 ? DECODE_TABLE[c] : -1;
     }
+
     public static ULID parse(String ulid) {
-        long ts = base32Decode(ulid.substring(0, 10));
-        long hi = base32Decode(ulid.substring(10, 18));
-        long lo = base32Decode(ulid.substring(18, 26));
-        long msb = (ts << 16) | (hi >>> 24);
-        long lsb = lo | (hi << 40);
+        if (ulid.length() != ENCODED_LENGTH) {
+            throw new MalformedULIDException(String.format("Expected %d characters but found %d", ENCODED_LENGTH, ulid.length()));
+        }
+        return parse((CharSequence) ulid, 0);
+    }
+
+    // The 26 characters carry 130 bits, so the value is shifted through msb and lsb as a single 128 bit register.
+    // Any invalid character sets the sign bit of `invalid`, which is checked once after the loop.
+    public static ULID parse(CharSequence ulid, int offset) {
+        checkRoom(ulid.length(), offset);
+        long msb = 0;
+        long lsb = 0;
+        int invalid = 0;
+        for (int i = 0; i < ENCODED_LENGTH; i++) {
+            int v = base32Value(ulid.charAt(offset + i));
+            invalid |= v;
+            msb = (msb << BASE32_BITS) | (lsb >>> (Long.SIZE - BASE32_BITS));
+            lsb = (lsb << BASE32_BITS) | (v & BASE32_MASK);
+        }
+        if (invalid < 0 || base32Value(ulid.charAt(offset)) > 7) {
+            throw malformed(ulid.subSequence(offset, offset + ENCODED_LENGTH));
+        }
+        return new ULID(msb, lsb);
+    }
+
+    public static ULID parse(char[] ulid, int offset) {
+        checkRoom(ulid.length, offset);
+        long msb = 0;
+        long lsb = 0;
+        int invalid = 0;
+        for (int i = 0; i < ENCODED_LENGTH; i++) {
+            int v = base32Value(ulid[offset + i]);
+            invalid |= v;
+            msb = (msb << BASE32_BITS) | (lsb >>> (Long.SIZE - BASE32_BITS));
+            lsb = (lsb << BASE32_BITS) | (v & BASE32_MASK);
+        }
+        if (invalid < 0 || base32Value(ulid[offset]) > 7) {
+            throw malformed(CharBuffer.wrap(ulid, offset, ENCODED_LENGTH));
+        }
         return new ULID(msb, lsb);
     }
+
+    public static ULID parse(byte[] ascii, int offset) {
+        checkRoom(ascii.length, offset);
+        long msb = 0;
+        long lsb = 0;
+        int invalid = 0;
+        for (int i = 0; i < ENCODED_LENGTH; i++) {
+            int v = base32Value(ascii[offset + i]);
+            invalid |= v;
+            msb = (msb << BASE32_BITS) | (lsb >>> (Long.SIZE - BASE32_BITS));
+            lsb = (lsb << BASE32_BITS) | (v & BASE32_MASK);
+        }
+        if (invalid < 0 || base32Value(ascii[offset]) > 7) {
+            throw malformed(new String(ascii, offset, ENCODED_LENGTH, StandardCharsets.ISO_8859_1));
+        }
+        return new ULID(msb, lsb);
+    }
+
+    /**
+     * Reads the 26 character ASCII form at the buffer's position and advances it.
+     */
+    public static ULID parse(ByteBuffer ascii) {
+        if (ascii.remaining() < ENCODED_LENGTH) {
+            throw new BufferUnderflowException();
+        }
+        int position = ascii.position();
+        if (ascii.hasArray()) {
+            ULID ulid = parse(ascii.array(), ascii.arrayOffset() + position);
+            ascii.position(position + ENCODED_LENGTH);
+            return ulid;
+        }
+        long msb = 0;
+        long lsb = 0;
+        int invalid = 0;
+        for (int i = 0; i < ENCODED_LENGTH; i++) {
+            int v = base32Value(ascii.get(position + i));
+            invalid |= v;
+            msb = (msb << BASE32_BITS) | (lsb >>> (Long.SIZE - BASE32_BITS));
+            lsb = (lsb << BASE32_BITS) | (v & BASE32_MASK);
+        }
+        if (invalid < 0 || base32Value(ascii.get(position)) > 7) {
+            byte[] copy = new byte[ENCODED_LENGTH];
+            for (int i = 0; i < ENCODED_LENGTH; i++) {
+                copy[i] = ascii.get(position + i);
+            }
+            throw malformed(new String(copy, StandardCharsets.ISO_8859_1));
+        }
+        ascii.position(position + ENCODED_LENGTH);
+        return new ULID(msb, lsb);
+    }
+
+    private static void checkRoom(int length, int offset) {
+        if (offset < 0 || length - offset < ENCODED_LENGTH) {
+            throw new IndexOutOfBoundsException("No room for " + ENCODED_LENGTH + " characters at offset " + offset);
+        }
+    }
+
+    private static RuntimeException malformed(CharSequence ulid) {
+        if (base32Value(ulid.charAt(0)) > 7) {
+            return new OverflowException("Value " + ulid + " exceeds the maximum of 7ZZZZZZZZZZZZZZZZZZZZZZZZZ");
+        }
+        int i = 0;
+        while (base32Value(ulid.charAt(i)) >= 0) {
+            i++;
+        }
+        return new MalformedULIDException(String.format("Invalid character '%s' at index %d of %s", ulid.charAt(i), i, ulid));
+    }
+
+    public static ULID of(long msb, long lsb) {
+        return new ULID(msb, lsb);
+    }
+
     public static ULID fromBytes(byte[] bytes) {
-        long msb = Util.fromBytes(bytes);
-        long lsb = Util.fromBytes(bytes, 8);
+        return fromBytes(bytes, 0);
+    }
+
+    public static ULID fromBytes(byte[] bytes, int offset) {
+        long msb = Util.fromBytes(bytes, offset);
+        long lsb = Util.fromBytes(bytes, offset + Long.BYTES);
+        return new ULID(msb, lsb);
+    }
+
+    /**
+     * Reads the 16 byte big-endian form at the buffer's position and advances it, regardless of the buffer's
+     * byte order.
+     */
+    public static ULID fromBytes(ByteBuffer src) {
+        long msb = src.getLong();
+        long lsb = src.getLong();
+        if (src.order() == ByteOrder.LITTLE_ENDIAN) {
+            msb = Long.reverseBytes(msb);
+            lsb = Long.reverseBytes(lsb);
+        }
         return new ULID(msb, lsb);
     }
 
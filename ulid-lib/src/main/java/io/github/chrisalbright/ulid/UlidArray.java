@@ -0,0 +1,233 @@
+package io.github.chrisalbright.ulid;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * A growable list of ULIDs stored as two primitive columns, one for the msb and one for the lsb.
+ * <p>
+ * Sorting and searching use unsigned 128 bit order, which is the order of the string and byte forms.
+ */
+public class UlidArray {
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int DIGITS = 2 * Long.BYTES;
+
+    private long[] msbs;
+    private long[] lsbs;
+    private int size;
+
+    public UlidArray() {
+        this(16);
+    }
+
+    public UlidArray(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Negative capacity " + capacity);
+        }
+        this.msbs = new long[capacity];
+        this.lsbs = new long[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void add(ULID ulid) {
+        add(ulid.msb(), ulid.lsb());
+    }
+
+    public void add(long msb, long lsb) {
+        ensureCapacity(size + 1);
+        msbs[size] = msb;
+        lsbs[size] = lsb;
+        size++;
+    }
+
+    /**
+     * Appends {@code count} consecutive ids from {@code generator} without creating {@link ULID} instances.
+     */
+    public void generate(ULID.Generator generator, int count) {
+        ensureCapacity(size + count);
+        generator.generate(msbs, lsbs, size, count);
+        size += count;
+    }
+
+    public ULID get(int index) {
+        checkIndex(index);
+        return ULID.of(msbs[index], lsbs[index]);
+    }
+
+    public long msb(int index) {
+        checkIndex(index);
+        return msbs[index];
+    }
+
+    public long lsb(int index) {
+        checkIndex(index);
+        return lsbs[index];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Sorts in place with a least significant digit radix sort over the 16 bytes of each id. Byte positions that
+     * hold the same value in every id, such as the high timestamp bytes, are skipped.
+     */
+    public void sort() {
+        if (size < 2) {
+            return;
+        }
+        int[][] counts = new int[DIGITS][RADIX];
+        for (int i = 0; i < size; i++) {
+            long msb = msbs[i];
+            long lsb = lsbs[i];
+            for (int d = 0; d < Long.BYTES; d++) {
+                counts[d][(int) (lsb >>> (d * RADIX_BITS)) & (RADIX - 1)]++;
+                counts[d + Long.BYTES][(int) (msb >>> (d * RADIX_BITS)) & (RADIX - 1)]++;
+            }
+        }
+        long[] srcMsbs = msbs;
+        long[] srcLsbs = lsbs;
+        long[] dstMsbs = new long[msbs.length];
+        long[] dstLsbs = new long[lsbs.length];
+        for (int d = 0; d < DIGITS; d++) {
+            int[] count = counts[d];
+            if (count[digit(srcMsbs[0], srcLsbs[0], d)] == size) {
+                continue;
+            }
+            int offset = 0;
+            for (int b = 0; b < RADIX; b++) {
+                int c = count[b];
+                count[b] = offset;
+                offset += c;
+            }
+            for (int i = 0; i < size; i++) {
+                int position = count[digit(srcMsbs[i], srcLsbs[i], d)]++;
+                dstMsbs[position] = srcMsbs[i];
+                dstLsbs[position] = srcLsbs[i];
+            }
+            long[] swap = srcMsbs;
+            srcMsbs = dstMsbs;
+            dstMsbs = swap;
+            swap = srcLsbs;
+            srcLsbs = dstLsbs;
+            dstLsbs = swap;
+        }
+        msbs = srcMsbs;
+        lsbs = srcLsbs;
+    }
+
+    private static int digit(long msb, long lsb, int d) {
+        long word = d < Long.BYTES ? lsb : msb;
+        return (int) (word >>> ((d % Long.BYTES) * RADIX_BITS)) & (RADIX - 1);
+    }
+
+    /**
+     * Removes adjacent duplicates, so a sorted array holds each id once. Returns the new size.
+     */
+    public int distinct() {
+        if (size < 2) {
+            return size;
+        }
+        int last = 0;
+        for (int i = 1; i < size; i++) {
+            if (msbs[i] != msbs[last] || lsbs[i] != lsbs[last]) {
+                last++;
+                msbs[last] = msbs[i];
+                lsbs[last] = lsbs[i];
+            }
+        }
+        size = last + 1;
+        return size;
+    }
+
+    /**
+     * Searches a sorted array, with the same result convention as {@link Arrays#binarySearch(long[], long)}.
+     */
+    public int binarySearch(ULID ulid) {
+        return binarySearch(ulid.msb(), ulid.lsb());
+    }
+
+    public int binarySearch(long msb, long lsb) {
+        int index = lowerBound(msb, lsb);
+        if (index < size && msbs[index] == msb && lsbs[index] == lsb) {
+            return index;
+        }
+        return -(index + 1);
+    }
+
+    /**
+     * Returns the index of the first id in a sorted array that is not less than the given id.
+     */
+    public int lowerBound(long msb, long lsb) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(msbs[mid], lsbs[mid], msb, lsb) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first id in a sorted array that is greater than the given id.
+     */
+    public int upperBound(long msb, long lsb) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(msbs[mid], lsbs[mid], msb, lsb) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first id in a sorted array generated at or after {@code from}.
+     */
+    public int rangeStart(Instant from) {
+        ULID min = ULID.minFor(from);
+        return lowerBound(min.msb(), min.lsb());
+    }
+
+    /**
+     * Returns the index after the last id in a sorted array generated at or before {@code to}.
+     */
+    public int rangeEnd(Instant to) {
+        ULID max = ULID.maxFor(to);
+        return upperBound(max.msb(), max.lsb());
+    }
+
+    private static int compare(long msb1, long lsb1, long msb2, long lsb2) {
+        int cmp = Long.compareUnsigned(msb1, msb2);
+        return cmp == 0 ? Long.compareUnsigned(lsb1, lsb2) : cmp;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new OutOfMemoryError("Capacity exceeds " + Integer.MAX_VALUE);
+        }
+        if (capacity > msbs.length) {
+            int grown = Math.max(capacity, msbs.length + (msbs.length >> 1) + 1);
+            msbs = Arrays.copyOf(msbs, grown);
+            lsbs = Arrays.copyOf(lsbs, grown);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+}
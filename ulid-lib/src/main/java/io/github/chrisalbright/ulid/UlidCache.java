@@ -0,0 +1,363 @@
+package io.github.chrisalbright.ulid;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache from encoded strings to ULID instances, for services that parse the same ids over and over. Repeated
+ * lookups of a string return one shared instance. Strings are keyed by their canonical form, so lower case and the
+ * aliases I, L and O find the same entry as the upper case string. A cache created with {@code memoizeStrings} also
+ * has each cached instance keep that canonical string as its {@link ULID#toString()} form, at the cost of holding the
+ * string as long as the instance lives; other instances encode on every call.
+ * <p>
+ * The cache is split into shards by the string's hash, each guarded by its own lock and holding an equal part of the
+ * maximum size; an {@link EvictionPolicy} decides which entries a full shard gives up. Parsing happens outside the
+ * lock, so two threads missing on the same string may both parse it, and the first to insert wins. Hit, miss and
+ * eviction counts are exposed as a JMX MBean.
+ */
+public class UlidCache implements UlidCacheMBean {
+    // smallest shard worth splitting off, so small caches keep exact policy order
+    private static final int MIN_SHARD_SIZE = 64;
+
+    private final int maximumSize;
+    private final boolean memoizeStrings;
+    private final Shard[] shards;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public UlidCache(int maximumSize) {
+        this(maximumSize, EvictionPolicy.tinyLfu());
+    }
+
+    public UlidCache(int maximumSize, EvictionPolicy policy) {
+        this(maximumSize, policy, false);
+    }
+
+    /**
+     * @param memoizeStrings whether cached instances keep their {@link ULID#toString()} form
+     */
+    public UlidCache(int maximumSize, EvictionPolicy policy, boolean memoizeStrings) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive, was " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.memoizeStrings = memoizeStrings;
+        int limit = Math.min(Runtime.getRuntime().availableProcessors() * 4, maximumSize / MIN_SHARD_SIZE);
+        int n = Integer.highestOneBit(Math.max(1, limit));
+        this.shards = new Shard[n];
+        for (int i = 0; i < n; i++) {
+            int capacity = maximumSize / n + (i < maximumSize % n ? 1 : 0);
+            shards[i] = new Shard(policy.tracker(capacity));
+        }
+    }
+
+    /**
+     * Returns the cached instance for {@code s}, parsing and caching it on a miss. Malformed strings are not cached.
+     */
+    public ULID parse(String s) {
+        String key = canonical(s);
+        Shard shard = shard(key);
+        synchronized (shard) {
+            ULID cached = shard.entries.get(key);
+            if (cached != null) {
+                shard.tracker.accessed(key);
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        return insert(shard, key, ULID.parse(s));
+    }
+
+    /**
+     * Returns the cached instance equal to {@code ulid}, caching {@code ulid} itself if there is none.
+     */
+    public ULID intern(ULID ulid) {
+        String s = ulid.toString();
+        Shard shard = shard(s);
+        synchronized (shard) {
+            ULID cached = shard.entries.get(s);
+            if (cached != null) {
+                shard.tracker.accessed(s);
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        return insert(shard, s, ulid);
+    }
+
+    private ULID insert(Shard shard, String s, ULID ulid) {
+        synchronized (shard) {
+            ULID existing = shard.entries.putIfAbsent(s, ulid);
+            if (existing != null) {
+                return existing;
+            }
+            if (memoizeStrings) {
+                ulid.memoize(s);
+            }
+            String victim = shard.tracker.added(s);
+            if (victim != null) {
+                shard.entries.remove(victim);
+                evictions.increment();
+            }
+        }
+        return ulid;
+    }
+
+    // the string toString() would return for the id s encodes, or s itself if it is malformed and will fail to parse
+    private static String canonical(String s) {
+        if (s.length() != ULID.ENCODED_LENGTH) {
+            return s;
+        }
+        char[] chars = null;
+        for (int i = 0; i < ULID.ENCODED_LENGTH; i++) {
+            char c = s.charAt(i);
+            int value = c < ULID.DECODE_TABLE.length ? ULID.DECODE_TABLE[c] : -1;
+            if (value < 0) {
+                return s;
+            }
+            if (ULID.ENCODE_TABLE[value] != c) {
+                if (chars == null) {
+                    chars = s.toCharArray();
+                }
+                chars[i] = ULID.ENCODE_TABLE[value];
+            }
+        }
+        return chars == null ? s : new String(chars);
+    }
+
+    private Shard shard(String s) {
+        int h = s.hashCode();
+        return shards[(h ^ h >>> 16) & (shards.length - 1)];
+    }
+
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the fraction of lookups that were hits, or 0 before the first lookup.
+     */
+    @Override
+    public double getHitRate() {
+        long h = hits.sum();
+        long requests = h + misses.sum();
+        return requests == 0 ? 0 : (double) h / requests;
+    }
+
+    @Override
+    public int getSize() {
+        int size = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                size += shard.entries.size();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName("io.github.chrisalbright.ulid:type=UlidCache,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    private static final class Shard {
+        final Map<String, ULID> entries = new HashMap<>();
+        final Tracker tracker;
+
+        Shard(Tracker tracker) {
+            this.tracker = tracker;
+        }
+    }
+
+    /**
+     * Creates the {@link Tracker} for each shard of a cache.
+     */
+    @FunctionalInterface
+    public interface EvictionPolicy {
+        Tracker tracker(int capacity);
+
+        /**
+         * Evicts the least recently used entry.
+         */
+        static EvictionPolicy lru() {
+            return Lru::new;
+        }
+
+        /**
+         * Admits new entries through a small LRU window, and lets an entry leaving the window into the main LRU
+         * region only if it has been looked up more often, by an approximate count, than the entry it would evict.
+         * Keeps frequently used ids through scans of ids seen once.
+         */
+        static EvictionPolicy tinyLfu() {
+            return WindowTinyLfu::new;
+        }
+    }
+
+    /**
+     * Keeps the eviction order of one shard. Calls are made under the shard's lock.
+     */
+    public interface Tracker {
+        /**
+         * Records a hit on a cached key.
+         */
+        void accessed(String key);
+
+        /**
+         * Records a key just added to the shard and returns the key the shard must now remove, which may be the new
+         * key itself, or null if the shard is within its capacity.
+         */
+        String added(String key);
+    }
+
+    private static final class Lru implements Tracker {
+        private final LinkedHashMap<String, Boolean> order = new LinkedHashMap<>(16, 0.75f, true);
+        private final int capacity;
+
+        Lru(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public void accessed(String key) {
+            order.get(key);
+        }
+
+        @Override
+        public String added(String key) {
+            order.put(key, Boolean.TRUE);
+            return order.size() > capacity ? removeEldest(order) : null;
+        }
+    }
+
+    // the main region is a plain LRU rather than the segmented one of W-TinyLFU proper
+    private static final class WindowTinyLfu implements Tracker {
+        private final LinkedHashMap<String, Boolean> window = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<String, Boolean> main = new LinkedHashMap<>(16, 0.75f, true);
+        private final int windowCapacity;
+        private final int mainCapacity;
+        private final FrequencySketch sketch;
+
+        WindowTinyLfu(int capacity) {
+            this.windowCapacity = Math.max(1, capacity / 100);
+            this.mainCapacity = capacity - windowCapacity;
+            this.sketch = new FrequencySketch(capacity);
+        }
+
+        @Override
+        public void accessed(String key) {
+            sketch.increment(key);
+            if (window.get(key) == null) {
+                main.get(key);
+            }
+        }
+
+        @Override
+        public String added(String key) {
+            sketch.increment(key);
+            window.put(key, Boolean.TRUE);
+            if (window.size() <= windowCapacity) {
+                return null;
+            }
+            String candidate = removeEldest(window);
+            if (main.size() < mainCapacity) {
+                main.put(candidate, Boolean.TRUE);
+                return null;
+            }
+            if (main.isEmpty()) {
+                return candidate;
+            }
+            String victim = main.keySet().iterator().next();
+            if (sketch.frequency(candidate) <= sketch.frequency(victim)) {
+                return candidate;
+            }
+            main.remove(victim);
+            main.put(candidate, Boolean.TRUE);
+            return victim;
+        }
+    }
+
+    private static String removeEldest(LinkedHashMap<String, Boolean> order) {
+        Iterator<String> keys = order.keySet().iterator();
+        String eldest = keys.next();
+        keys.remove();
+        return eldest;
+    }
+
+    /**
+     * A count-min sketch of 4 rows of counters saturating at 15, all halved after every 10 increments per entry of
+     * capacity so that old popularity fades.
+     */
+    private static final class FrequencySketch {
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+        private static final int MAX = 15;
+
+        private final byte[] counters;
+        private final int width;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            int c = Math.min(capacity, 1 << 24);
+            this.width = Integer.highestOneBit(Math.max(16, c * 4));
+            this.counters = new byte[SEEDS.length * width];
+            this.sampleSize = 10 * c;
+        }
+
+        void increment(String key) {
+            int h = key.hashCode();
+            for (int row = 0; row < SEEDS.length; row++) {
+                int i = index(row, h);
+                if (counters[i] < MAX) {
+                    counters[i]++;
+                }
+            }
+            if (++additions == sampleSize) {
+                for (int i = 0; i < counters.length; i++) {
+                    counters[i] >>= 1;
+                }
+                additions /= 2;
+            }
+        }
+
+        int frequency(String key) {
+            int h = key.hashCode();
+            int min = MAX;
+            for (int row = 0; row < SEEDS.length; row++) {
+                min = Math.min(min, counters[index(row, h)]);
+            }
+            return min;
+        }
+
+        private int index(int row, int h) {
+            int x = h * SEEDS[row];
+            x ^= x >>> 16;
+            return row * width + (x & (width - 1));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.chrisalbright.ulid;
+
+public interface UlidCacheMBean {
+    long getHits();
+
+    long getMisses();
+
+    long getEvictions();
+
+    double getHitRate();
+
+    int getSize();
+
+    int getMaximumSize();
+}
@@ -0,0 +1,238 @@
+package io.github.chrisalbright.ulid;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Converts whole columns of ULIDs between {@code long[]} msb and lsb arrays and ASCII records of
+ * {@link ULID#ENCODED_LENGTH} bytes, laid out back to back or at a fixed stride, for example with a line separator.
+ * <p>
+ * Apart from the two leading timestamp characters, a record is three groups of 8 characters carrying 40 bits each.
+ * Each group is handled as one 64 bit word, a byte per character: the bits are spread into or gathered out of the
+ * bytes with three mask and shift steps, and encoding maps all 8 values to the Crockford alphabet with byte wise
+ * arithmetic instead of table lookups.
+ */
+public class UlidCodec {
+    private static final long LOW_BYTES = 0x0101_0101_0101_0101L;
+    private static final long HIGH_BITS = 0x8080_8080_8080_8080L;
+    // records per chunk when a buffer without an accessible array is staged through a heap array
+    private static final int CHUNK = 256;
+
+    private UlidCodec() {
+    }
+
+    public static void encode(long[] msbs, long[] lsbs, int offset, int count, byte[] dst, int dstOffset) {
+        encode(msbs, lsbs, offset, count, dst, dstOffset, ULID.ENCODED_LENGTH);
+    }
+
+    /**
+     * Writes {@code count} records starting {@code stride} bytes apart; bytes between records are left untouched.
+     */
+    public static void encode(long[] msbs, long[] lsbs, int offset, int count, byte[] dst, int dstOffset, int stride) {
+        checkColumns(msbs, lsbs, offset, count);
+        checkRecords(dst.length, dstOffset, stride, count);
+        for (int i = 0; i < count; i++) {
+            encode(msbs[offset + i], lsbs[offset + i], dst, dstOffset + i * stride);
+        }
+    }
+
+    /**
+     * Writes {@code count} back to back records at the buffer's position and advances it.
+     */
+    public static void encode(long[] msbs, long[] lsbs, int offset, int count, ByteBuffer dst) {
+        checkColumns(msbs, lsbs, offset, count);
+        if (dst.remaining() / ULID.ENCODED_LENGTH < count) {
+            throw new BufferOverflowException();
+        }
+        if (dst.hasArray()) {
+            int position = dst.position();
+            encode(msbs, lsbs, offset, count, dst.array(), dst.arrayOffset() + position);
+            dst.position(position + count * ULID.ENCODED_LENGTH);
+            return;
+        }
+        byte[] chunk = new byte[Math.min(count, CHUNK) * ULID.ENCODED_LENGTH];
+        for (int done = 0; done < count; done += CHUNK) {
+            int n = Math.min(count - done, CHUNK);
+            encode(msbs, lsbs, offset + done, n, chunk, 0);
+            dst.put(chunk, 0, n * ULID.ENCODED_LENGTH);
+        }
+    }
+
+    public static void decode(byte[] src, int srcOffset, long[] msbs, long[] lsbs, int offset, int count) {
+        decode(src, srcOffset, ULID.ENCODED_LENGTH, msbs, lsbs, offset, count);
+    }
+
+    /**
+     * Reads {@code count} records starting {@code stride} bytes apart. All records are decoded before the input is
+     * checked; if any is invalid a {@link MalformedULIDException} names the first, and {@link #validate} lists all.
+     * The columns then hold the decoded ids of the valid records and unspecified values for the invalid ones.
+     */
+    public static void decode(byte[] src, int srcOffset, int stride, long[] msbs, long[] lsbs, int offset,
+                              int count) {
+        checkColumns(msbs, lsbs, offset, count);
+        checkRecords(src.length, srcOffset, stride, count);
+        long invalid = 0;
+        for (int i = 0; i < count; i++) {
+            invalid |= decode(src, srcOffset + i * stride, msbs, lsbs, offset + i);
+        }
+        if (invalid != 0) {
+            int first = validate(src, srcOffset, stride, count)[0];
+            int position = srcOffset + first * stride;
+            throw new MalformedULIDException(String.format("Invalid record %d: %s", first,
+                    new String(src, position, ULID.ENCODED_LENGTH, StandardCharsets.ISO_8859_1)));
+        }
+    }
+
+    /**
+     * Reads {@code count} back to back records at the buffer's position and advances it. If a record is invalid, the
+     * position is left unchanged and the columns may already hold some of the decoded ids.
+     */
+    public static void decode(ByteBuffer src, long[] msbs, long[] lsbs, int offset, int count) {
+        checkColumns(msbs, lsbs, offset, count);
+        if (src.remaining() / ULID.ENCODED_LENGTH < count) {
+            throw new BufferUnderflowException();
+        }
+        if (src.hasArray()) {
+            int position = src.position();
+            decode(src.array(), src.arrayOffset() + position, msbs, lsbs, offset, count);
+            src.position(position + count * ULID.ENCODED_LENGTH);
+            return;
+        }
+        int start = src.position();
+        byte[] chunk = new byte[Math.min(count, CHUNK) * ULID.ENCODED_LENGTH];
+        for (int done = 0; done < count; done += CHUNK) {
+            int n = Math.min(count - done, CHUNK);
+            src.get(chunk, 0, n * ULID.ENCODED_LENGTH);
+            try {
+                decode(chunk, 0, msbs, lsbs, offset + done, n);
+            } catch (MalformedULIDException e) {
+                src.position(start);
+                int first = validate(chunk, 0, ULID.ENCODED_LENGTH, n)[0];
+                throw new MalformedULIDException(String.format("Invalid record %d: %s", done + first,
+                        new String(chunk, first * ULID.ENCODED_LENGTH, ULID.ENCODED_LENGTH,
+                                StandardCharsets.ISO_8859_1)));
+            }
+        }
+    }
+
+    public static int[] validate(byte[] src, int srcOffset, int count) {
+        return validate(src, srcOffset, ULID.ENCODED_LENGTH, count);
+    }
+
+    /**
+     * Returns the indexes of the records that {@link ULID#parse(byte[], int)} would reject, in ascending order.
+     */
+    public static int[] validate(byte[] src, int srcOffset, int stride, int count) {
+        checkRecords(src.length, srcOffset, stride, count);
+        int[] invalid = new int[0];
+        int found = 0;
+        for (int i = 0; i < count; i++) {
+            int position = srcOffset + i * stride;
+            long bad = values(src, position + 2) | values(src, position + 10) | values(src, position + 18);
+            if ((bad & HIGH_BITS | value(src[position]) >>> 3 | value(src[position + 1]) >>> 31) != 0) {
+                if (found == invalid.length) {
+                    invalid = Arrays.copyOf(invalid, Math.max(8, found * 2));
+                }
+                invalid[found++] = i;
+            }
+        }
+        return Arrays.copyOf(invalid, found);
+    }
+
+    private static void encode(long msb, long lsb, byte[] dst, int offset) {
+        long timestamp = msb >>> 16;
+        dst[offset] = (byte) ULID.ENCODE_TABLE[(int) (timestamp >>> 45)];
+        dst[offset + 1] = (byte) ULID.ENCODE_TABLE[(int) (timestamp >>> 40) & ULID.BASE32_MASK];
+        Util.putLong(dst, offset + 2, ascii(spread(timestamp)));
+        Util.putLong(dst, offset + 10, ascii(spread((msb & ULID.MSB_MASK) << 24 | lsb >>> 40)));
+        Util.putLong(dst, offset + 18, ascii(spread(lsb)));
+    }
+
+    // returns non-zero if the record is invalid; the columns then hold garbage for this index
+    private static long decode(byte[] src, int position, long[] msbs, long[] lsbs, int index) {
+        int first = value(src[position]);
+        int second = value(src[position + 1]);
+        long a = values(src, position + 2);
+        long b = values(src, position + 10);
+        long c = values(src, position + 18);
+        long timestamp = (long) (first & 0x7) << 45 | (long) (second & ULID.BASE32_MASK) << 40 | gather(a);
+        long random = gather(b);
+        msbs[index] = timestamp << 16 | random >>> 24;
+        lsbs[index] = random << 40 | gather(c);
+        return (a | b | c) & HIGH_BITS | first >>> 3 | second >>> 31;
+    }
+
+    // places the low 40 bits of l into 8 bytes of 5 bits each, the most significant group in the highest byte
+    private static long spread(long l) {
+        long t = (l & 0xFF_FFF0_0000L) << 12 | l & 0xF_FFFFL;
+        t = (t & 0x000F_FC00_000F_FC00L) << 6 | t & 0x0000_03FF_0000_03FFL;
+        return (t & 0x03E0_03E0_03E0_03E0L) << 3 | t & 0x001F_001F_001F_001FL;
+    }
+
+    // inverse of spread
+    private static long gather(long t) {
+        t = (t & 0x1F00_1F00_1F00_1F00L) >>> 3 | t & 0x001F_001F_001F_001FL;
+        t = (t & 0x03FF_0000_03FF_0000L) >>> 6 | t & 0x0000_03FF_0000_03FFL;
+        return (t & 0x000F_FFFF_0000_0000L) >>> 12 | t & 0xF_FFFFL;
+    }
+
+    // maps 8 values of 0 to 31 to Crockford characters: '0' + v, plus 7 past the digits and 1 past each of I, L, O, U
+    private static long ascii(long v) {
+        return v + 0x30 * LOW_BYTES + 7 * atLeast(v, 10) + atLeast(v, 18) + atLeast(v, 20) + atLeast(v, 22)
+                + atLeast(v, 27);
+    }
+
+    // 1 in each byte of v that is at least k, 0 elsewhere; bytes must be below 128 - k + 128
+    private static long atLeast(long v, int k) {
+        return ((v + (0x80 - k) * LOW_BYTES) & HIGH_BITS) >>> 7;
+    }
+
+    // maps 8 characters to their values, one per byte, with the high bit set in the byte of an invalid character.
+    // Canonical upper case input is mapped with byte wise arithmetic, the inverse of ascii, and accepted if every
+    // value is below 32 and encodes back to the input; words with lower case, aliases or invalid characters fall back to the lookup table
+    private static long values(byte[] src, int position) {
+        long c = Bytes.getLong(src, position);
+        long b = c & ~HIGH_BITS;
+        // the high bit of each byte absorbs the subtraction, so no borrow crosses into the next byte
+        long v = ((b | HIGH_BITS) - 0x30 * LOW_BYTES - 7 * atLeast(b, 'A') - atLeast(b, 'J') - atLeast(b, 'M')
+                - atLeast(b, 'P') - atLeast(b, 'V')) & ~HIGH_BITS;
+        if ((v & 0xE0 * LOW_BYTES) == 0 && ascii(v) == c) {
+            return v;
+        }
+        long t = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            int ch = src[position + i];
+            t = t << 8 | (ULID.DECODE_TABLE[ch & 0x7F] | ch & 0x80) & 0xFF;
+        }
+        return t;
+    }
+
+    private static int value(byte c) {
+        return c < 0 ? -1 : ULID.DECODE_TABLE[c];
+    }
+
+    private static void checkColumns(long[] msbs, long[] lsbs, int offset, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Negative count " + count);
+        }
+        if (offset < 0 || Math.min(msbs.length, lsbs.length) - offset < count) {
+            throw new IndexOutOfBoundsException("No room for " + count + " ids at offset " + offset);
+        }
+    }
+
+    private static void checkRecords(int length, int offset, int stride, int count) {
+        if (stride < ULID.ENCODED_LENGTH) {
+            throw new IllegalArgumentException("Stride " + stride + " is shorter than a record");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("Negative count " + count);
+        }
+        if (count > 0 && (offset < 0 || (length - offset - ULID.ENCODED_LENGTH) / (long) stride < count - 1
+                || length - offset < ULID.ENCODED_LENGTH)) {
+            throw new IndexOutOfBoundsException("No room for " + count + " records at offset " + offset);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package io.github.chrisalbright.ulid;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * A map keyed by ULID that stores keys inline in primitive arrays with linear probing.
+ * <p>
+ * Lookups take the raw {@code (msb, lsb)} pair, so callers holding ids in primitive form never create a {@link ULID}.
+ * An all zero slot marks an empty bucket; the all zero id itself is tracked separately.
+ */
+public class UlidHashMap<V> {
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] msbs;
+    private long[] lsbs;
+    private Object[] values;
+    private int mask;
+    private int resizeAt;
+    private int size;
+    private boolean containsZero;
+    private V zeroValue;
+
+    public UlidHashMap() {
+        this(16);
+    }
+
+    public UlidHashMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Negative expected size " + expectedSize);
+        }
+        allocate(UlidHashSet.capacityFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public V put(ULID key, V value) {
+        return put(key.msb(), key.lsb(), value);
+    }
+
+    public V put(long msb, long lsb, V value) {
+        if (msb == 0 && lsb == 0) {
+            V previous = zeroValue;
+            if (!containsZero) {
+                containsZero = true;
+                size++;
+            }
+            zeroValue = value;
+            return previous;
+        }
+        int slot = Util.hash(msb, lsb) & mask;
+        while (msbs[slot] != 0 || lsbs[slot] != 0) {
+            if (msbs[slot] == msb && lsbs[slot] == lsb) {
+                V previous = valueAt(slot);
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size >= resizeAt) {
+            // grown before the insert, so a full table rejects the entry without holding it
+            grow();
+            return put(msb, lsb, value);
+        }
+        msbs[slot] = msb;
+        lsbs[slot] = lsb;
+        values[slot] = value;
+        size++;
+        return null;
+    }
+
+    public V get(ULID key) {
+        return get(key.msb(), key.lsb());
+    }
+
+    public V get(long msb, long lsb) {
+        if (msb == 0 && lsb == 0) {
+            return zeroValue;
+        }
+        int slot = slotOf(msb, lsb);
+        return slot < 0 ? null : valueAt(slot);
+    }
+
+    public boolean containsKey(ULID key) {
+        return containsKey(key.msb(), key.lsb());
+    }
+
+    public boolean containsKey(long msb, long lsb) {
+        if (msb == 0 && lsb == 0) {
+            return containsZero;
+        }
+        return slotOf(msb, lsb) >= 0;
+    }
+
+    public V remove(ULID key) {
+        return remove(key.msb(), key.lsb());
+    }
+
+    public V remove(long msb, long lsb) {
+        if (msb == 0 && lsb == 0) {
+            V previous = zeroValue;
+            if (containsZero) {
+                containsZero = false;
+                zeroValue = null;
+                size--;
+            }
+            return previous;
+        }
+        int slot = slotOf(msb, lsb);
+        if (slot < 0) {
+            return null;
+        }
+        V previous = valueAt(slot);
+        shiftBack(slot);
+        size--;
+        return previous;
+    }
+
+    public void clear() {
+        Arrays.fill(msbs, 0L);
+        Arrays.fill(lsbs, 0L);
+        Arrays.fill(values, null);
+        containsZero = false;
+        zeroValue = null;
+        size = 0;
+    }
+
+    public void forEach(BiConsumer<ULID, V> action) {
+        if (containsZero) {
+            action.accept(ULID.of(0, 0), zeroValue);
+        }
+        for (int i = 0; i < msbs.length; i++) {
+            if (msbs[i] != 0 || lsbs[i] != 0) {
+                action.accept(ULID.of(msbs[i], lsbs[i]), valueAt(i));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    private int slotOf(long msb, long lsb) {
+        int slot = Util.hash(msb, lsb) & mask;
+        while (msbs[slot] != 0 || lsbs[slot] != 0) {
+            if (msbs[slot] == msb && lsbs[slot] == lsb) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // backward shift deletion keeps every probe chain unbroken without tombstones
+    private void shiftBack(int slot) {
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (msbs[next] != 0 || lsbs[next] != 0) {
+            int home = Util.hash(msbs[next], lsbs[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                msbs[gap] = msbs[next];
+                lsbs[gap] = lsbs[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        msbs[gap] = 0;
+        lsbs[gap] = 0;
+        values[gap] = null;
+    }
+
+    private void grow() {
+        // checked before doubling, which would overflow to a negative length at the maximum
+        if (msbs.length >= MAX_CAPACITY) {
+            throw new IllegalStateException("Map exceeds maximum capacity of " + MAX_CAPACITY);
+        }
+        rehash(msbs.length << 1);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldMsbs = msbs;
+        long[] oldLsbs = lsbs;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldMsbs.length; i++) {
+            long msb = oldMsbs[i];
+            long lsb = oldLsbs[i];
+            if (msb != 0 || lsb != 0) {
+                int slot = Util.hash(msb, lsb) & mask;
+                while (msbs[slot] != 0 || lsbs[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                msbs[slot] = msb;
+                lsbs[slot] = lsb;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        msbs = new long[capacity];
+        lsbs = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * 0.7);
+    }
+}
@@ -0,0 +1,191 @@
+package io.github.chrisalbright.ulid;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A set of ULIDs stored inline in primitive arrays with linear probing.
+ * <p>
+ * Lookups take the raw {@code (msb, lsb)} pair, so callers holding ids in primitive form never create a {@link ULID}.
+ * An all zero slot marks an empty bucket; the all zero id itself is tracked separately.
+ */
+public class UlidHashSet {
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] msbs;
+    private long[] lsbs;
+    private int mask;
+    private int resizeAt;
+    private int size;
+    private boolean containsZero;
+
+    public UlidHashSet() {
+        this(16);
+    }
+
+    public UlidHashSet(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Negative expected size " + expectedSize);
+        }
+        allocate(capacityFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean add(ULID ulid) {
+        return add(ulid.msb(), ulid.lsb());
+    }
+
+    public boolean add(long msb, long lsb) {
+        if (msb == 0 && lsb == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int slot = Util.hash(msb, lsb) & mask;
+        while (msbs[slot] != 0 || lsbs[slot] != 0) {
+            if (msbs[slot] == msb && lsbs[slot] == lsb) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size >= resizeAt) {
+            // grown before the insert, so a full table rejects the id without holding it
+            grow();
+            return add(msb, lsb);
+        }
+        msbs[slot] = msb;
+        lsbs[slot] = lsb;
+        size++;
+        return true;
+    }
+
+    public boolean contains(ULID ulid) {
+        return contains(ulid.msb(), ulid.lsb());
+    }
+
+    public boolean contains(long msb, long lsb) {
+        if (msb == 0 && lsb == 0) {
+            return containsZero;
+        }
+        return slotOf(msb, lsb) >= 0;
+    }
+
+    public boolean remove(ULID ulid) {
+        return remove(ulid.msb(), ulid.lsb());
+    }
+
+    public boolean remove(long msb, long lsb) {
+        if (msb == 0 && lsb == 0) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+            size--;
+            return true;
+        }
+        int slot = slotOf(msb, lsb);
+        if (slot < 0) {
+            return false;
+        }
+        shiftBack(slot);
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(msbs, 0L);
+        Arrays.fill(lsbs, 0L);
+        containsZero = false;
+        size = 0;
+    }
+
+    public void forEach(Consumer<ULID> action) {
+        if (containsZero) {
+            action.accept(ULID.of(0, 0));
+        }
+        for (int i = 0; i < msbs.length; i++) {
+            if (msbs[i] != 0 || lsbs[i] != 0) {
+                action.accept(ULID.of(msbs[i], lsbs[i]));
+            }
+        }
+    }
+
+    private int slotOf(long msb, long lsb) {
+        int slot = Util.hash(msb, lsb) & mask;
+        while (msbs[slot] != 0 || lsbs[slot] != 0) {
+            if (msbs[slot] == msb && lsbs[slot] == lsb) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // backward shift deletion keeps every probe chain unbroken without tombstones
+    private void shiftBack(int slot) {
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (msbs[next] != 0 || lsbs[next] != 0) {
+            int home = Util.hash(msbs[next], lsbs[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                msbs[gap] = msbs[next];
+                lsbs[gap] = lsbs[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        msbs[gap] = 0;
+        lsbs[gap] = 0;
+    }
+
+    private void grow() {
+        // checked before doubling, which would overflow to a negative length at the maximum
+        if (msbs.length >= MAX_CAPACITY) {
+            throw new IllegalStateException("Set exceeds maximum capacity of " + MAX_CAPACITY);
+        }
+        rehash(msbs.length << 1);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldMsbs = msbs;
+        long[] oldLsbs = lsbs;
+        allocate(capacity);
+        for (int i = 0; i < oldMsbs.length; i++) {
+            long msb = oldMsbs[i];
+            long lsb = oldLsbs[i];
+            if (msb != 0 || lsb != 0) {
+                int slot = Util.hash(msb, lsb) & mask;
+                while (msbs[slot] != 0 || lsbs[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                msbs[slot] = msb;
+                lsbs[slot] = lsb;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        msbs = new long[capacity];
+        lsbs = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * 0.7);
+    }
+
+    static int capacityFor(int expectedSize) {
+        long needed = Math.max(2, (long) Math.ceil(expectedSize / 0.7));
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Expected size " + expectedSize + " exceeds maximum capacity");
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+}
@@ -0,0 +1,265 @@
+package io.github.chrisalbright.ulid;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An append optimized, ordered index of ULIDs, partitioned by timestamp into segments that each cover a fixed span
+ * of milliseconds.
+ * <p>
+ * Keys are held in primitive columns, one {@link UlidArray} per segment. Appending ids in generation order only
+ * writes to the newest segment; ids that arrive out of order are accepted and the affected segment is sorted the next
+ * time it is read. Time range queries locate the first and last segment from the 48 bit timestamp prefix, search
+ * only those two, and take every segment in between whole. Duplicates are kept.
+ */
+public class UlidIndex implements Iterable<ULID> {
+    private static final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.SORTED | Spliterator.NONNULL;
+
+    private final long segmentMillis;
+    private final List<Segment> segments = new ArrayList<>();
+    private long size;
+
+    public UlidIndex() {
+        this(1000);
+    }
+
+    public UlidIndex(long segmentMillis) {
+        if (segmentMillis < 1) {
+            throw new IllegalArgumentException("Segment span must be at least one millisecond");
+        }
+        this.segmentMillis = segmentMillis;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int segments() {
+        return segments.size();
+    }
+
+    public void add(ULID ulid) {
+        add(ulid.msb(), ulid.lsb());
+    }
+
+    public void add(long msb, long lsb) {
+        long bucket = bucket(msb);
+        Segment segment;
+        int last = segments.size() - 1;
+        if (last >= 0 && segments.get(last).bucket == bucket) {
+            segment = segments.get(last);
+        } else {
+            int index = search(bucket);
+            if (index >= 0) {
+                segment = segments.get(index);
+            } else {
+                segment = new Segment(bucket);
+                segments.add(-(index + 1), segment);
+            }
+        }
+        segment.add(msb, lsb);
+        size++;
+    }
+
+    public boolean contains(ULID ulid) {
+        int index = search(bucket(ulid.msb()));
+        return index >= 0 && segments.get(index).keys().binarySearch(ulid.msb(), ulid.lsb()) >= 0;
+    }
+
+    /**
+     * Returns the greatest id less than or equal to {@code ulid}, or null if there is none.
+     */
+    public ULID floor(ULID ulid) {
+        int index = search(bucket(ulid.msb()));
+        if (index >= 0) {
+            UlidArray keys = segments.get(index).keys();
+            int position = keys.upperBound(ulid.msb(), ulid.lsb());
+            if (position > 0) {
+                return keys.get(position - 1);
+            }
+            index--;
+        } else {
+            index = -(index + 1) - 1;
+        }
+        if (index < 0) {
+            return null;
+        }
+        UlidArray keys = segments.get(index).keys();
+        return keys.get(keys.size() - 1);
+    }
+
+    /**
+     * Returns the least id greater than or equal to {@code ulid}, or null if there is none.
+     */
+    public ULID ceiling(ULID ulid) {
+        int index = search(bucket(ulid.msb()));
+        if (index >= 0) {
+            UlidArray keys = segments.get(index).keys();
+            int position = keys.lowerBound(ulid.msb(), ulid.lsb());
+            if (position < keys.size()) {
+                return keys.get(position);
+            }
+            index++;
+        } else {
+            index = -(index + 1);
+        }
+        return index < segments.size() ? segments.get(index).keys().get(0) : null;
+    }
+
+    /**
+     * Streams, in order, every id generated from {@code from} through {@code to}, both inclusive.
+     */
+    public Stream<ULID> range(Instant from, Instant to) {
+        return stream(rangeIterator(ULID.minFor(from), ULID.maxFor(to)), -1);
+    }
+
+    /**
+     * Counts the ids generated from {@code from} through {@code to} without visiting the segments in between.
+     */
+    public long count(Instant from, Instant to) {
+        Cursor cursor = rangeIterator(ULID.minFor(from), ULID.maxFor(to));
+        if (cursor.segment > cursor.endSegment) {
+            return 0;
+        }
+        if (cursor.segment == cursor.endSegment) {
+            return Math.max(0, cursor.endPosition - cursor.position);
+        }
+        long count = segments.get(cursor.segment).keys().size() - cursor.position;
+        for (int s = cursor.segment + 1; s < cursor.endSegment; s++) {
+            count += segments.get(s).keys().size();
+        }
+        return count + cursor.endPosition;
+    }
+
+    @Override
+    public Iterator<ULID> iterator() {
+        if (segments.isEmpty()) {
+            return new Cursor(0, 0, -1, 0);
+        }
+        int last = segments.size() - 1;
+        return new Cursor(0, 0, last, segments.get(last).keys().size());
+    }
+
+    public Stream<ULID> stream() {
+        return stream(iterator(), size);
+    }
+
+    private static Stream<ULID> stream(Iterator<ULID> iterator, long size) {
+        Spliterator<ULID> spliterator = size < 0
+                ? Spliterators.spliteratorUnknownSize(iterator, CHARACTERISTICS)
+                : Spliterators.spliterator(iterator, size, CHARACTERISTICS);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    private Cursor rangeIterator(ULID min, ULID max) {
+        int first = search(bucket(min.msb()));
+        int position = 0;
+        if (first >= 0) {
+            position = segments.get(first).keys().lowerBound(min.msb(), min.lsb());
+        } else {
+            first = -(first + 1);
+        }
+        int last = search(bucket(max.msb()));
+        int endPosition;
+        if (last >= 0) {
+            endPosition = segments.get(last).keys().upperBound(max.msb(), max.lsb());
+        } else {
+            last = -(last + 1) - 1;
+            endPosition = last < 0 ? 0 : segments.get(last).keys().size();
+        }
+        return new Cursor(first, position, last, endPosition);
+    }
+
+    private long bucket(long msb) {
+        return (msb >>> 16) / segmentMillis;
+    }
+
+    // same result convention as Arrays.binarySearch
+    private int search(long bucket) {
+        int low = 0;
+        int high = segments.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long b = segments.get(mid).bucket;
+            if (b < bucket) {
+                low = mid + 1;
+            } else if (b > bucket) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static final class Segment {
+        private final long bucket;
+        private final UlidArray keys = new UlidArray();
+        private boolean sorted = true;
+
+        Segment(long bucket) {
+            this.bucket = bucket;
+        }
+
+        void add(long msb, long lsb) {
+            int last = keys.size() - 1;
+            if (sorted && last >= 0) {
+                int cmp = Long.compareUnsigned(msb, keys.msb(last));
+                sorted = cmp > 0 || cmp == 0 && Long.compareUnsigned(lsb, keys.lsb(last)) >= 0;
+            }
+            keys.add(msb, lsb);
+        }
+
+        UlidArray keys() {
+            if (!sorted) {
+                keys.sort();
+                sorted = true;
+            }
+            return keys;
+        }
+    }
+
+    /**
+     * Walks positions from ({@code segment}, {@code position}) up to, but not including, ({@code endSegment},
+     * {@code endPosition}).
+     */
+    private final class Cursor implements Iterator<ULID> {
+        private final int endSegment;
+        private final int endPosition;
+        private int segment;
+        private int position;
+        private UlidArray keys;
+
+        Cursor(int segment, int position, int endSegment, int endPosition) {
+            this.segment = segment;
+            this.position = position;
+            this.endSegment = endSegment;
+            this.endPosition = endPosition;
+            this.keys = segment <= endSegment ? segments.get(segment).keys() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (segment < endSegment && position == keys.size()) {
+                keys = segments.get(++segment).keys();
+                position = 0;
+            }
+            return segment < endSegment || segment == endSegment && position < endPosition;
+        }
+
+        @Override
+        public ULID next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return keys.get(position++);
+        }
+    }
+}
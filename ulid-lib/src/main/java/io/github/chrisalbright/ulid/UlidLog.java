@@ -0,0 +1,339 @@
+package io.github.chrisalbright.ulid;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * An append only log of ULIDs in memory mapped segment files, each record holding the 16 byte form of an id
+ * followed by an optional fixed size payload and a CRC32 of both.
+ * <p>
+ * Ids must be appended in order, as a monotonic {@link ULID.Generator} produces them, so time range scans are binary
+ * searches over the mapped records. Records are read in place: {@link #scan} hands out a view of each payload rather
+ * than a copy.
+ * <p>
+ * Each segment starts with a header holding the record count as of the last {@link #force()}. Stores to a mapping
+ * reach storage in no particular order, so after a crash a record past that count may be partly written; on open,
+ * each segment is read forward from its durable count for as long as records match their checksum and are in order,
+ * and whatever follows is cleared.
+ */
+public class UlidLog implements Closeable {
+    private static final int MAGIC = 0x554C4F47;
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 32;
+    private static final int COUNT_OFFSET = 16;
+    private static final int CHECKSUM_BYTES = Integer.BYTES;
+    private static final String SUFFIX = ".ulog";
+
+    private final Path directory;
+    private final int payloadBytes;
+    private final int recordBytes;
+    private final int recordsPerSegment;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final CRC32 crc = new CRC32();
+    private boolean closed;
+    private long size;
+    private long lastMsb;
+    private long lastLsb;
+
+    public UlidLog(Path directory) throws IOException {
+        this(directory, 0, 1 << 20);
+    }
+
+    public UlidLog(Path directory, int payloadBytes, int recordsPerSegment) throws IOException {
+        if (payloadBytes < 0 || recordsPerSegment < 1) {
+            throw new IllegalArgumentException("Payload size must not be negative and segments must hold a record");
+        }
+        this.recordBytes = ULID.BYTES + payloadBytes + CHECKSUM_BYTES;
+        if ((long) recordsPerSegment * recordBytes + HEADER_BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segments must fit in " + Integer.MAX_VALUE + " bytes");
+        }
+        this.directory = directory;
+        this.payloadBytes = payloadBytes;
+        this.recordsPerSegment = recordsPerSegment;
+        Files.createDirectories(directory);
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        for (int i = 0; i < files.size(); i++) {
+            if (!files.get(i).equals(segmentFile(i))) {
+                throw new IllegalStateException("Unexpected segment " + files.get(i));
+            }
+            MappedByteBuffer segment = map(files.get(i));
+            checkHeader(segment, files.get(i));
+            segments.add(segment);
+            int count = recover(segment);
+            size += count;
+            if (count < recordsPerSegment) {
+                for (int j = i + 1; j < files.size(); j++) {
+                    Files.delete(files.get(j));
+                }
+                break;
+            }
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int payloadBytes() {
+        return payloadBytes;
+    }
+
+    public void append(ULID ulid) throws IOException {
+        append(ulid.msb(), ulid.lsb(), null);
+    }
+
+    /**
+     * Appends a record. {@code payload} must have exactly {@link #payloadBytes()} bytes remaining, and may be null to
+     * leave the payload zeroed; its position is not changed.
+     */
+    public void append(ULID ulid, ByteBuffer payload) throws IOException {
+        append(ulid.msb(), ulid.lsb(), payload);
+    }
+
+    public void append(long msb, long lsb, ByteBuffer payload) throws IOException {
+        checkOpen();
+        if (size > 0 && compare(msb, lsb, lastMsb, lastLsb) < 0) {
+            throw new IllegalArgumentException("Id " + ULID.of(msb, lsb) + " is before " + ULID.of(lastMsb, lastLsb));
+        }
+        if (payload != null && payload.remaining() != payloadBytes) {
+            throw new IllegalArgumentException("Payload must be " + payloadBytes + " bytes");
+        }
+        int s = (int) (size / recordsPerSegment);
+        if (s == segments.size()) {
+            segments.add(create(segmentFile(s)));
+        }
+        MappedByteBuffer segment = segments.get(s);
+        int offset = offset(size);
+        segment.putLong(offset, msb);
+        segment.putLong(offset + Long.BYTES, lsb);
+        if (payload != null) {
+            ByteBuffer target = segment.duplicate();
+            target.position(offset + ULID.BYTES);
+            target.put(payload.duplicate());
+        }
+        segment.putInt(offset + ULID.BYTES + payloadBytes, checksum(segment, offset));
+        lastMsb = msb;
+        lastLsb = lsb;
+        size++;
+    }
+
+    public ULID get(long index) {
+        checkOpen();
+        checkIndex(index);
+        ByteBuffer segment = segments.get((int) (index / recordsPerSegment));
+        int offset = offset(index);
+        return ULID.of(segment.getLong(offset), segment.getLong(offset + Long.BYTES));
+    }
+
+    /**
+     * Returns a read only view of the payload at {@code index}.
+     */
+    public ByteBuffer payload(long index) {
+        checkOpen();
+        checkIndex(index);
+        return payloadView(segments.get((int) (index / recordsPerSegment)), offset(index));
+    }
+
+    /**
+     * Returns the index of the first record generated at or after {@code from}.
+     */
+    public long rangeStart(Instant from) {
+        ULID min = ULID.minFor(from);
+        return search(min.msb(), min.lsb(), false);
+    }
+
+    /**
+     * Returns the index after the last record generated at or before {@code to}.
+     */
+    public long rangeEnd(Instant to) {
+        ULID max = ULID.maxFor(to);
+        return search(max.msb(), max.lsb(), true);
+    }
+
+    /**
+     * Visits, in order, every record generated from {@code from} through {@code to}, both inclusive.
+     */
+    public void scan(Instant from, Instant to, RecordConsumer consumer) {
+        scan(rangeStart(from), rangeEnd(to), consumer);
+    }
+
+    public void forEach(RecordConsumer consumer) {
+        scan(0, size, consumer);
+    }
+
+    private void scan(long start, long end, RecordConsumer consumer) {
+        checkOpen();
+        for (long index = start; index < end; ) {
+            int s = (int) (index / recordsPerSegment);
+            ByteBuffer segment = segments.get(s);
+            ByteBuffer payload = payloadView(segment, offset(index));
+            long segmentEnd = Math.min(end, (long) (s + 1) * recordsPerSegment);
+            for (; index < segmentEnd; index++) {
+                int offset = offset(index);
+                payload.limit(offset + ULID.BYTES + payloadBytes).position(offset + ULID.BYTES);
+                consumer.accept(segment.getLong(offset), segment.getLong(offset + Long.BYTES), payload);
+            }
+        }
+    }
+
+    /**
+     * Writes appended records to storage and then records their count in the segment headers.
+     */
+    public void force() {
+        checkOpen();
+        for (int s = 0; s < segments.size(); s++) {
+            MappedByteBuffer segment = segments.get(s);
+            long count = Math.min(recordsPerSegment, size - (long) s * recordsPerSegment);
+            if (segment.getLong(COUNT_OFFSET) != count) {
+                segment.force();
+                segment.putLong(COUNT_OFFSET, count);
+                segment.force();
+            }
+        }
+    }
+
+    /**
+     * Forces the log. The mappings are released when the log is garbage collected.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            force();
+            segments.clear();
+            closed = true;
+        }
+    }
+
+    /**
+     * Receives a record. The payload buffer is only valid during the call and is reused for the next record.
+     */
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(long msb, long lsb, ByteBuffer payload);
+    }
+
+    private long search(long msb, long lsb, boolean after) {
+        long low = 0;
+        long high = size;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            ByteBuffer segment = segments.get((int) (mid / recordsPerSegment));
+            int offset = offset(mid);
+            int cmp = compare(segment.getLong(offset), segment.getLong(offset + Long.BYTES), msb, lsb);
+            if (cmp < 0 || after && cmp == 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int recover(MappedByteBuffer segment) {
+        int count = (int) segment.getLong(COUNT_OFFSET);
+        if (count > 0) {
+            int offset = offset(count - 1);
+            lastMsb = segment.getLong(offset);
+            lastLsb = segment.getLong(offset + Long.BYTES);
+        }
+        for (; count < recordsPerSegment; count++) {
+            int offset = offset(count);
+            long msb = segment.getLong(offset);
+            long lsb = segment.getLong(offset + Long.BYTES);
+            if (segment.getInt(offset + ULID.BYTES + payloadBytes) != checksum(segment, offset)
+                    || size + count > 0 && compare(msb, lsb, lastMsb, lastLsb) < 0) {
+                break;
+            }
+            lastMsb = msb;
+            lastLsb = lsb;
+        }
+        for (int offset = HEADER_BYTES + count * recordBytes; offset < segment.capacity(); offset++) {
+            if (segment.get(offset) != 0) {
+                segment.put(offset, (byte) 0);
+            }
+        }
+        return count;
+    }
+
+    // over the id and payload of the record at offset
+    private int checksum(ByteBuffer segment, int offset) {
+        ByteBuffer record = segment.duplicate();
+        record.limit(offset + ULID.BYTES + payloadBytes).position(offset);
+        crc.reset();
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+
+    private void checkHeader(ByteBuffer segment, Path file) {
+        if (segment.getInt(0) != MAGIC || segment.getInt(4) != VERSION || segment.getInt(8) != payloadBytes
+                || segment.getInt(12) != recordsPerSegment) {
+            throw new IllegalStateException(file + " is not a log segment with " + payloadBytes + " byte payloads and "
+                    + recordsPerSegment + " records");
+        }
+    }
+
+    private MappedByteBuffer create(Path file) throws IOException {
+        MappedByteBuffer segment = map(file);
+        segment.putInt(0, MAGIC);
+        segment.putInt(4, VERSION);
+        segment.putInt(8, payloadBytes);
+        segment.putInt(12, recordsPerSegment);
+        segment.putLong(COUNT_OFFSET, 0);
+        segment.force();
+        return segment;
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_BYTES + (long) recordsPerSegment * recordBytes);
+        }
+    }
+
+    private ByteBuffer payloadView(ByteBuffer segment, int offset) {
+        ByteBuffer view = segment.asReadOnlyBuffer();
+        view.limit(offset + ULID.BYTES + payloadBytes).position(offset + ULID.BYTES);
+        return view;
+    }
+
+    private Path segmentFile(int segment) {
+        return directory.resolve(String.format("%010d%s", segment, SUFFIX));
+    }
+
+    private int offset(long index) {
+        return HEADER_BYTES + (int) (index % recordsPerSegment) * recordBytes;
+    }
+
+    private static int compare(long msb1, long lsb1, long msb2, long lsb2) {
+        int cmp = Long.compareUnsigned(msb1, msb2);
+        return cmp == 0 ? Long.compareUnsigned(lsb1, lsb2) : cmp;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Log is closed");
+        }
+    }
+
+    private void checkIndex(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+}
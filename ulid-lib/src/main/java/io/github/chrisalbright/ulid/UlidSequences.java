@@ -0,0 +1,207 @@
+package io.github.chrisalbright.ulid;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Collection;
+
+/**
+ * Writes and reads sequences of ULIDs to {@link DataOutput}/{@link DataInput} streams and {@link ByteBuffer}s.
+ * <p>
+ * A sequence starts with a format byte and the id count as an unsigned varint. In the plain format each id follows as
+ * its 16 byte big-endian form. The delta format requires ids in ascending order and stores each one relative to the
+ * one before it: an id from a later millisecond is the varint timestamp difference plus its 80 random bits, 11 or 12
+ * bytes for gaps under 8 seconds, and an id from the same millisecond is the difference of the random parts, 2 bytes
+ * when a monotonic generator issued them back to back.
+ */
+public class UlidSequences {
+    private static final int PLAIN = 0;
+    private static final int DELTA = 1;
+
+    private UlidSequences() {
+    }
+
+    public static void write(DataOutput out, Collection<ULID> ids, boolean delta) throws IOException {
+        Encoder encoder = new Encoder(out::write, out::writeLong, delta, ids.size());
+        for (ULID id : ids) {
+            encoder.add(id.msb(), id.lsb());
+        }
+    }
+
+    public static void write(DataOutput out, UlidArray ids, boolean delta) throws IOException {
+        Encoder encoder = new Encoder(out::write, out::writeLong, delta, ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            encoder.add(ids.msb(i), ids.lsb(i));
+        }
+    }
+
+    /**
+     * Writes at the buffer's position and advances it; the output is big-endian regardless of the buffer's order.
+     */
+    public static void write(ByteBuffer dst, Collection<ULID> ids, boolean delta) {
+        try {
+            Encoder encoder = new Encoder(b -> dst.put((byte) b), l -> putLong(dst, l), delta, ids.size());
+            for (ULID id : ids) {
+                encoder.add(id.msb(), id.lsb());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void write(ByteBuffer dst, UlidArray ids, boolean delta) {
+        try {
+            Encoder encoder = new Encoder(b -> dst.put((byte) b), l -> putLong(dst, l), delta, ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                encoder.add(ids.msb(i), ids.lsb(i));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static UlidArray read(DataInput in) throws IOException {
+        return decode(in::readUnsignedByte, in::readLong);
+    }
+
+    public static UlidArray read(ByteBuffer src) {
+        try {
+            return decode(() -> src.get() & 0xFF, () -> getLong(src));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static UlidArray decode(ByteSource bytes, LongSource longs) throws IOException {
+        int format = bytes.read();
+        if (format != PLAIN && format != DELTA) {
+            throw new IOException("Unknown sequence format " + format);
+        }
+        long count = readVarint(bytes);
+        if (count > Integer.MAX_VALUE) {
+            throw new IOException("Sequence of " + count + " ids does not fit in an array");
+        }
+        UlidArray ids = new UlidArray((int) Math.min(count, 1 << 16));
+        long msb = 0;
+        long lsb = 0;
+        for (long i = 0; i < count; i++) {
+            if (format == PLAIN || i == 0) {
+                msb = longs.read();
+                lsb = longs.read();
+            } else {
+                long tag = readVarint(bytes);
+                if ((tag & 1) != 0) {
+                    long timestamp = (msb >>> 16) + (tag >>> 1);
+                    int high = bytes.read() << 8 | bytes.read();
+                    msb = timestamp << 16 | high;
+                    lsb = longs.read();
+                } else {
+                    long low = readVarint(bytes);
+                    long next = lsb + low;
+                    long carry = Long.compareUnsigned(next, lsb) < 0 ? 1 : 0;
+                    msb += (tag >>> 1) + carry;
+                    lsb = next;
+                }
+            }
+            ids.add(msb, lsb);
+        }
+        return ids;
+    }
+
+    private static final class Encoder {
+        private final ByteSink bytes;
+        private final LongSink longs;
+        private final boolean delta;
+        private long written;
+        private long msb;
+        private long lsb;
+
+        Encoder(ByteSink bytes, LongSink longs, boolean delta, int count) throws IOException {
+            this.bytes = bytes;
+            this.longs = longs;
+            this.delta = delta;
+            bytes.write(delta ? DELTA : PLAIN);
+            writeVarint(bytes, count);
+        }
+
+        void add(long msb, long lsb) throws IOException {
+            if (!delta || written == 0) {
+                longs.write(msb);
+                longs.write(lsb);
+            } else {
+                int cmp = Long.compareUnsigned(msb, this.msb);
+                if (cmp < 0 || cmp == 0 && Long.compareUnsigned(lsb, this.lsb) < 0) {
+                    throw new IllegalArgumentException("Delta encoding requires ascending ids, "
+                            + ULID.of(msb, lsb) + " follows " + ULID.of(this.msb, this.lsb));
+                }
+                long timestamps = (msb >>> 16) - (this.msb >>> 16);
+                if (timestamps > 0) {
+                    writeVarint(bytes, timestamps << 1 | 1);
+                    bytes.write((int) (msb >>> 8) & 0xFF);
+                    bytes.write((int) msb & 0xFF);
+                    longs.write(lsb);
+                } else {
+                    // the random parts as one 80 bit difference, the high 16 bits in the tag
+                    long borrow = Long.compareUnsigned(lsb, this.lsb) < 0 ? 1 : 0;
+                    writeVarint(bytes, (msb - this.msb - borrow) << 1);
+                    writeVarint(bytes, lsb - this.lsb);
+                }
+            }
+            this.msb = msb;
+            this.lsb = lsb;
+            written++;
+        }
+    }
+
+    private static void writeVarint(ByteSink bytes, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            bytes.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes.write((int) value);
+    }
+
+    private static long readVarint(ByteSource bytes) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = bytes.read();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static void putLong(ByteBuffer dst, long l) {
+        dst.putLong(dst.order() == ByteOrder.BIG_ENDIAN ? l : Long.reverseBytes(l));
+    }
+
+    private static long getLong(ByteBuffer src) {
+        long l = src.getLong();
+        return src.order() == ByteOrder.BIG_ENDIAN ? l : Long.reverseBytes(l);
+    }
+
+    @FunctionalInterface
+    private interface ByteSink {
+        void write(int b) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface LongSink {
+        void write(long l) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ByteSource {
+        int read() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface LongSource {
+        long read() throws IOException;
+    }
+}
@@ -0,0 +1,240 @@
+package io.github.chrisalbright.ulid;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterators that divide ULID keyed work by the 48 bit timestamp prefix, for parallel streams and fork/join tasks.
+ * <p>
+ * {@link #windows} covers a time range with consecutive {@link Range}s of a fixed span, computed on demand, so any
+ * range can be split without touching data. {@link #of(UlidArray)} walks a sorted array and splits it at the index
+ * where the timestamp midpoint of the remaining ids falls, found by binary search. Both report exact sizes.
+ */
+public class UlidSpliterators {
+
+    private UlidSpliterators() {
+    }
+
+    /**
+     * A closed interval of ids, from {@link #min()} through {@link #max()}.
+     */
+    public static final class Range implements Comparable<Range> {
+        private final ULID min;
+        private final ULID max;
+
+        public Range(ULID min, ULID max) {
+            this.min = Objects.requireNonNull(min);
+            this.max = Objects.requireNonNull(max);
+        }
+
+        public ULID min() {
+            return min;
+        }
+
+        public ULID max() {
+            return max;
+        }
+
+        public boolean contains(ULID ulid) {
+            return min.compareTo(ulid) <= 0 && ulid.compareTo(max) <= 0;
+        }
+
+        @Override
+        public int compareTo(Range o) {
+            int cmp = min.compareTo(o.min);
+            return cmp == 0 ? max.compareTo(o.max) : cmp;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Range range = (Range) o;
+            return min.equals(range.min) && max.equals(range.max);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * min.hashCode() + max.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "[" + min + ", " + max + "]";
+        }
+    }
+
+    /**
+     * Covers every id generated from {@code from} through {@code to}, both inclusive, with ranges of {@code window},
+     * aligned to {@code from}. The window is truncated to whole milliseconds.
+     */
+    public static Spliterator<Range> windows(Instant from, Instant to, Duration window) {
+        return windows(ULID.minFor(from), ULID.maxFor(to), window.toMillis());
+    }
+
+    /**
+     * Covers the ids from {@code from} through {@code to}, both inclusive, with ranges of {@code windowMillis}
+     * milliseconds aligned to the timestamp of {@code from}; the first and last range end at the given ids.
+     */
+    public static Spliterator<Range> windows(ULID from, ULID to, long windowMillis) {
+        if (windowMillis < 1) {
+            throw new IllegalArgumentException("Window must be at least one millisecond");
+        }
+        long count = from.compareTo(to) > 0 ? 0 : (to.timestamp() - from.timestamp()) / windowMillis + 1;
+        return new Windows(from, to, windowMillis, 0, count);
+    }
+
+    /**
+     * Walks a sorted array.
+     */
+    public static Spliterator<ULID> of(UlidArray sorted) {
+        return new Columns(sorted, 0, sorted.size());
+    }
+
+    /**
+     * Walks the ids of a sorted array generated from {@code from} through {@code to}, both inclusive.
+     */
+    public static Spliterator<ULID> of(UlidArray sorted, Instant from, Instant to) {
+        int start = sorted.rangeStart(from);
+        return new Columns(sorted, start, Math.max(start, sorted.rangeEnd(to)));
+    }
+
+    private static final class Windows implements Spliterator<Range> {
+        private final ULID from;
+        private final ULID to;
+        private final long windowMillis;
+        private final long end;
+        private long next;
+
+        Windows(ULID from, ULID to, long windowMillis, long next, long end) {
+            this.from = from;
+            this.to = to;
+            this.windowMillis = windowMillis;
+            this.next = next;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Range> action) {
+            if (next == end) {
+                return false;
+            }
+            action.accept(window(next++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Range> action) {
+            while (next < end) {
+                action.accept(window(next++));
+            }
+        }
+
+        private Range window(long index) {
+            long start = from.timestamp() + index * windowMillis;
+            ULID min = index == 0 ? from : ULID.minFor(start);
+            ULID max = to.timestamp() - start < windowMillis ? to : ULID.maxFor(start + windowMillis - 1);
+            return new Range(min, max);
+        }
+
+        @Override
+        public Spliterator<Range> trySplit() {
+            long mid = (next + end) >>> 1;
+            if (mid <= next) {
+                return null;
+            }
+            Windows prefix = new Windows(from, to, windowMillis, next, mid);
+            next = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - next;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SORTED | DISTINCT | NONNULL | IMMUTABLE | SIZED | SUBSIZED;
+        }
+
+        @Override
+        public Comparator<? super Range> getComparator() {
+            return null;
+        }
+    }
+
+    /**
+     * Not {@link #DISTINCT}, since a sorted array may still hold duplicates; call {@link UlidArray#distinct()} first
+     * if that matters.
+     */
+    private static final class Columns implements Spliterator<ULID> {
+        private final UlidArray array;
+        private final int end;
+        private int next;
+
+        Columns(UlidArray array, int next, int end) {
+            this.array = array;
+            this.next = next;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super ULID> action) {
+            if (next == end) {
+                return false;
+            }
+            action.accept(array.get(next++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super ULID> action) {
+            while (next < end) {
+                action.accept(array.get(next++));
+            }
+        }
+
+        // splits at the first id of the middle millisecond, unless that leaves less than an eighth on one side, as
+        // with heavily skewed data or ids from a single millisecond, in which case it splits at the middle index
+        @Override
+        public Spliterator<ULID> trySplit() {
+            int size = end - next;
+            if (size < 2) {
+                return null;
+            }
+            long first = array.msb(next) >>> 16;
+            long last = array.msb(end - 1) >>> 16;
+            int mid = next + size / 2;
+            if (first != last) {
+                ULID min = ULID.minFor(first + (last - first + 1) / 2);
+                int boundary = Math.min(Math.max(array.lowerBound(min.msb(), min.lsb()), next), end);
+                if (boundary - next >= size / 8 && end - boundary >= size / 8) {
+                    mid = boundary;
+                }
+            }
+            Columns prefix = new Columns(array, next, mid);
+            next = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - next;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SORTED | NONNULL | SIZED | SUBSIZED;
+        }
+
+        @Override
+        public Comparator<? super ULID> getComparator() {
+            return null;
+        }
+    }
+}
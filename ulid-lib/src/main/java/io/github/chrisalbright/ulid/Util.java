@@ -23,27 +23,28 @@ public class Util {
     }
 
     public static long fromBytes(byte[] b, int offset) {
-        assert (b.length - offset >= Long.BYTES);
-        long l = 0;
-        for (int i = 0; i < Long.BYTES; i++) {
-            l = (l << 8) | (b[i + offset] & 0xFF);
-        }
-        return l;
+        return Bytes.getLong(b, offset);
     }
 
     public static byte[] toBytes(long l) {
         byte[] bytes = new byte[Long.BYTES];
-        bytes[0] = (byte) ((l >> 56) & 0xFF);
-        bytes[1] = (byte) ((l >> 48) & 0xFF);
-        bytes[2] = (byte) ((l >> 40) & 0xFF);
-        bytes[3] = (byte) ((l >> 32) & 0xFF);
-        bytes[4] = (byte) ((l >> 24) & 0xFF);
-        bytes[5] = (byte) ((l >> 16) & 0xFF);
-        bytes[6] = (byte) ((l >> 8) & 0xFF);
-        bytes[7] = (byte) (l & 0xFF);
+        putLong(bytes, 0, l);
         return bytes;
     }
 
+    public static void putLong(byte[] b, int offset, long l) {
+        Bytes.putLong(b, offset, l);
+    }
+
+    // spreads the 128 bits of an id over an int for open addressing tables. The halves are combined asymmetrically,
+    // so swapping them or keeping msb ^ lsb fixed does not keep the hash, and murmur3's fmix64 mixes the result
+    static int hash(long msb, long lsb) {
+        long h = msb * 0x9E3779B97F4A7C15L + lsb;
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return (int) (h ^ (h >>> 33));
+    }
+
     public static void p(long l, String... s) {
         for (String ss : s) {
             System.out.print(ss + " ");
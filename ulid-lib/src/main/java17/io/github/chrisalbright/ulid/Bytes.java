@@ -0,0 +1,46 @@
+package io.github.chrisalbright.ulid;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * The Java 17 version of the byte array hot paths: longs are read and written through a big-endian
+ * {@link VarHandle} view, a single bounds check and usually a single memory access each, and ids are compared with
+ * the intrinsified {@link Arrays#compareUnsigned(byte[], int, int, byte[], int, int)}.
+ */
+class Bytes {
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private Bytes() {
+    }
+
+    static long getLong(byte[] b, int offset) {
+        try {
+            return (long) LONGS.get(b, offset);
+        } catch (IndexOutOfBoundsException e) {
+            throw outOfBounds(b, offset);
+        }
+    }
+
+    static void putLong(byte[] b, int offset, long l) {
+        try {
+            LONGS.set(b, offset, l);
+        } catch (IndexOutOfBoundsException e) {
+            throw outOfBounds(b, offset);
+        }
+    }
+
+    /**
+     * Compares the 16 byte ids at the given offsets as unsigned numbers, returning -1, 0 or 1.
+     */
+    static int compareIds(byte[] a, int aOffset, byte[] b, int bOffset) {
+        return Integer.signum(Arrays.compareUnsigned(a, aOffset, aOffset + ULID.BYTES, b, bOffset, bOffset + ULID.BYTES));
+    }
+
+    private static ArrayIndexOutOfBoundsException outOfBounds(byte[] b, int offset) {
+        return new ArrayIndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + Long.BYTES
+                + ") out of bounds for length " + b.length);
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.chrisalbright.ulid;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Runs against the Java 8 classes under surefire and against the packaged multi-release jar under failsafe, which
+ * sets {@code ulid.multiRelease} to the version the jar should supply. Expected values come from {@link ByteBuffer},
+ * not from either implementation.
+ */
+public class BytesTest {
+
+    @Test
+    public void loadsTheExpectedVersion() {
+        URL source = Bytes.class.getResource("Bytes.class");
+        String version = System.getProperty("ulid.multiRelease");
+        if (version == null) {
+            Assertions.assertFalse(source.toString().contains("META-INF/versions/"), source.toString());
+        } else {
+            Assertions.assertTrue(source.toString().contains("META-INF/versions/" + version + "/"), source.toString());
+        }
+    }
+
+    @Test
+    public void readsAndWritesBigEndianLongsAtAnyOffset() {
+        Random random = new Random(5L);
+        byte[] bytes = new byte[32];
+        for (int i = 0; i < 1000; i++) {
+            long l = i < 4 ? new long[]{0L, -1L, Long.MIN_VALUE, Long.MAX_VALUE}[i] : random.nextLong();
+            int offset = random.nextInt(bytes.length - Long.BYTES + 1);
+            random.nextBytes(bytes);
+            byte[] expected = bytes.clone();
+            ByteBuffer.wrap(expected).putLong(offset, l);
+
+            Bytes.putLong(bytes, offset, l);
+            Assertions.assertArrayEquals(expected, bytes);
+            Assertions.assertEquals(l, Bytes.getLong(bytes, offset));
+            Assertions.assertEquals(ByteBuffer.wrap(bytes).getLong(offset), Bytes.getLong(bytes, offset));
+        }
+    }
+
+    @Test
+    public void comparesIdsAsUnsignedNumbers() {
+        Random random = new Random(9L);
+        byte[] a = new byte[40];
+        byte[] b = new byte[40];
+        for (int i = 0; i < 10_000; i++) {
+            random.nextBytes(a);
+            int aOffset = random.nextInt(a.length - ULID.BYTES + 1);
+            int bOffset = random.nextInt(b.length - ULID.BYTES + 1);
+            System.arraycopy(a, aOffset, b, bOffset, ULID.BYTES);
+            // leave equal, or change one byte anywhere in the id, including sign bits
+            if (i % 4 != 0) {
+                b[bOffset + random.nextInt(ULID.BYTES)] ^= (byte) (1 << random.nextInt(8));
+            }
+            ULID x = ULID.fromBytes(Arrays.copyOfRange(a, aOffset, aOffset + ULID.BYTES));
+            ULID y = ULID.fromBytes(Arrays.copyOfRange(b, bOffset, bOffset + ULID.BYTES));
+            int expected = Integer.signum(x.compareTo(y));
+
+            Assertions.assertEquals(expected, Bytes.compareIds(a, aOffset, b, bOffset));
+            Assertions.assertEquals(-expected, Bytes.compareIds(b, bOffset, a, aOffset));
+            Assertions.assertEquals(expected, ULID.compare(a, aOffset, b, bOffset));
+        }
+    }
+
+    @Test
+    public void rejectsOutOfBoundsAccessWithoutWriting() {
+        byte[] bytes = new byte[12];
+        Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> Bytes.getLong(bytes, 5));
+        Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> Bytes.getLong(bytes, -1));
+        Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> Bytes.putLong(bytes, 5, -1L));
+        Assertions.assertArrayEquals(new byte[12], bytes);
+        Assertions.assertThrows(ArrayIndexOutOfBoundsException.class,
+                () -> Bytes.compareIds(new byte[16], 0, new byte[20], 5));
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.chrisalbright.ulid;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CachedClockTest {
+
+    @Test
+    public void readsTheSourceOnEveryTick() throws InterruptedException {
+        AtomicLong source = new AtomicLong(100L);
+        try (CachedClock clock = new CachedClock(source::get, 1, TimeUnit.MILLISECONDS)) {
+            Assertions.assertEquals(100L, clock.getAsLong());
+            source.set(200L);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (clock.getAsLong() != 200L && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            Assertions.assertEquals(200L, clock.getAsLong());
+        }
+    }
+
+    @Test
+    public void readsTheSourceDirectlyOnceClosed() throws InterruptedException {
+        Thread caller = Thread.currentThread();
+        AtomicLong source = new AtomicLong(100L);
+        AtomicInteger ticks = new AtomicInteger();
+        CachedClock clock = new CachedClock(() -> {
+            if (Thread.currentThread() != caller) {
+                ticks.incrementAndGet();
+            }
+            return source.get();
+        }, 1, TimeUnit.MILLISECONDS);
+        clock.close();
+        Thread.sleep(20);
+        int ticked = ticks.get();
+        source.set(200L);
+        Thread.sleep(20);
+
+        Assertions.assertEquals(200L, clock.getAsLong());
+        Assertions.assertEquals(ticked, ticks.get());
+    }
+}
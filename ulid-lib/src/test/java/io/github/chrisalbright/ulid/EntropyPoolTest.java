@@ -0,0 +1,105 @@
+package io.github.chrisalbright.ulid;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class EntropyPoolTest {
+
+    @Test
+    public void longsComeFromTheSourceInOrder() {
+        Random source = new Random(17L);
+        byte[] expected = new byte[64];
+        new Random(17L).nextBytes(expected);
+        EntropyPool pool = new EntropyPool(source, 32);
+
+        for (int i = 0; i < expected.length; i += Long.BYTES) {
+            Assertions.assertEquals(Util.fromBytes(expected, i), pool.nextLong());
+        }
+    }
+
+    @Test
+    public void backgroundRefillsKeepTheSourceOrder() throws InterruptedException {
+        ExecutorService refiller = Executors.newSingleThreadExecutor();
+        try {
+            byte[] expected = new byte[4096];
+            new Random(19L).nextBytes(expected);
+            EntropyPool pool = new EntropyPool(new Random(19L), 256, refiller);
+
+            byte[] actual = new byte[expected.length];
+            for (int i = 0; i < actual.length; i += Long.BYTES) {
+                Util.putLong(actual, i, pool.nextLong());
+            }
+            Assertions.assertArrayEquals(expected, actual);
+        } finally {
+            refiller.shutdown();
+        }
+    }
+
+    @Test
+    public void refillsOnTheCallerWithoutAnExecutor() {
+        Thread caller = Thread.currentThread();
+        Random source = new Random(31L) {
+            @Override
+            public void nextBytes(byte[] bytes) {
+                Assertions.assertSame(caller, Thread.currentThread());
+                super.nextBytes(bytes);
+            }
+        };
+        byte[] expected = new byte[64];
+        new Random(31L).nextBytes(expected);
+        EntropyPool pool = new EntropyPool(source, 16, null);
+
+        for (int i = 0; i < expected.length; i += Long.BYTES) {
+            Assertions.assertEquals(Util.fromBytes(expected, i), pool.nextLong());
+        }
+    }
+
+    @Test
+    public void recoversFromAFailedBackgroundRefill() {
+        Random source = new Random(37L) {
+            int calls;
+
+            @Override
+            public void nextBytes(byte[] bytes) {
+                if (++calls == 2) {
+                    throw new IllegalStateException("source unavailable");
+                }
+                super.nextBytes(bytes);
+            }
+        };
+        byte[] expected = new byte[64];
+        new Random(37L).nextBytes(expected);
+        // the first refill of the spare fails
+        EntropyPool pool = new EntropyPool(source, 16, Runnable::run);
+
+        for (int i = 0; i < expected.length; i += Long.BYTES) {
+            Assertions.assertEquals(Util.fromBytes(expected, i), pool.nextLong());
+        }
+    }
+
+    @Test
+    public void bytesAndIntsShareThePool() {
+        byte[] expected = new byte[24];
+        new Random(23L).nextBytes(expected);
+        EntropyPool pool = new EntropyPool(new Random(23L), 16);
+
+        byte[] head = new byte[12];
+        pool.nextBytes(head);
+        int next = pool.nextInt();
+        for (int i = 0; i < head.length; i++) {
+            Assertions.assertEquals(expected[i], head[i]);
+        }
+        Assertions.assertEquals((int) (Util.fromBytes(expected, 12) >>> 32), next);
+    }
+
+    @Test
+    public void generatorsCanDrawFromThePool() {
+        ULID.Generator ulid = new ULID.Generator(new EntropyPool(new Random(29L), 64), System::currentTimeMillis);
+
+        Assertions.assertNotNull(ulid.generate());
+    }
+}
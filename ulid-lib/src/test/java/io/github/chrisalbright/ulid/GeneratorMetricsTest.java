@@ -0,0 +1,112 @@
+package io.github.chrisalbright.ulid;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+public class GeneratorMetricsTest {
+
+    @Test
+    public void countsGeneratorEvents() {
+        long[] time = {10L};
+        GeneratorMetrics metrics = new GeneratorMetrics();
+        ULID.Generator ulid = new ULID.Generator(new Random(1L), () -> time[0], OverflowPolicy.THROW, metrics);
+        ulid.generate();
+        ulid.generate();
+        ulid.generate(new ULID[4], 0, 4);
+        time[0] = 9L;
+        ulid.generate();
+        time[0] = -1L;
+        Assertions.assertThrows(NegativeCallTimeException.class, ulid::generate);
+
+        Assertions.assertEquals(7, metrics.getGenerated());
+        Assertions.assertEquals(1, metrics.getRandomDraws());
+        Assertions.assertEquals(3, metrics.getIncrements());
+        Assertions.assertEquals(1, metrics.getClockRegressions());
+        Assertions.assertEquals(1, metrics.getNegativeTimes());
+        Assertions.assertEquals(0, metrics.getNearOverflows());
+    }
+
+    @Test
+    public void countsAvoidedOverflows() {
+        Random exhausted = new Random() {
+            @Override
+            public long nextLong() {
+                return -1L;
+            }
+        };
+        GeneratorMetrics metrics = new GeneratorMetrics();
+        ULID.Generator ulid = new ULID.ConcurrentGenerator(exhausted, () -> 1L, OverflowPolicy.BORROW_NEXT_MILLISECOND, metrics);
+        ulid.generate();
+        ulid.generate();
+
+        Assertions.assertEquals(2, metrics.getGenerated());
+        Assertions.assertEquals(1, metrics.getNearOverflows());
+        Assertions.assertEquals(2, metrics.getRandomDraws());
+        Assertions.assertEquals(0, metrics.getIncrements());
+    }
+
+    @Test
+    public void countsOverflowsThatFailUnderTheThrowPolicy() {
+        Random exhausted = new Random() {
+            @Override
+            public long nextLong() {
+                return -1L;
+            }
+        };
+        GeneratorMetrics metrics = new GeneratorMetrics();
+        ULID.Generator plain = new ULID.Generator(exhausted, () -> 1L, OverflowPolicy.THROW, metrics);
+        plain.generate();
+        Assertions.assertThrows(OverflowException.class, plain::generate);
+        ULID.Generator concurrent = new ULID.ConcurrentGenerator(exhausted, () -> 1L, OverflowPolicy.THROW, metrics);
+        Assertions.assertThrows(OverflowException.class, () -> concurrent.generate(new ULID[2], 0, 2));
+
+        Assertions.assertEquals(2, metrics.getNearOverflows());
+        Assertions.assertEquals(1, plain.overflows());
+        Assertions.assertEquals(1, concurrent.overflows());
+        Assertions.assertEquals(1, metrics.getGenerated());
+    }
+
+    @Test
+    public void reportsOnlyTheAttemptThatWins() {
+        GeneratorMetrics metrics = new GeneratorMetrics();
+        ULID.Generator[] ulid = new ULID.Generator[1];
+        // the first draw issues an id from inside the call, so the outer compare-and-set fails and is retried
+        Random interfering = new Random(3L) {
+            boolean interfered;
+
+            @Override
+            public long nextLong() {
+                if (!interfered) {
+                    interfered = true;
+                    ulid[0].generate();
+                }
+                return super.nextLong();
+            }
+        };
+        ulid[0] = new ULID.ConcurrentGenerator(interfering, () -> 1L, OverflowPolicy.THROW, metrics);
+        ulid[0].generate();
+
+        Assertions.assertEquals(2, metrics.getGenerated());
+        Assertions.assertEquals(1, metrics.getRandomDraws());
+        Assertions.assertEquals(1, metrics.getIncrements());
+    }
+
+    @Test
+    public void registersAsAnMBean() throws JMException {
+        GeneratorMetrics metrics = new GeneratorMetrics();
+        new ULID.StripedGenerator(new Random(), System::currentTimeMillis, 2, OverflowPolicy.THROW, metrics).generate();
+        ObjectName name = metrics.register("test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            Assertions.assertEquals(1L, server.getAttribute(name, "Generated"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.chrisalbright.ulid;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class HighWaterMarkTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void restartResumesAfterTheMarkWhenTheClockGoesBack() throws IOException {
+        Path file = directory.resolve("node-1.hwm");
+        ULID last;
+        try (HighWaterMark mark = new HighWaterMark(file, 100)) {
+            Assertions.assertEquals(-1, mark.recovered());
+            ULID.NodeGenerator generator = new ULID.NodeGenerator(new Random(1L), () -> 5_000L, 4, 1, mark);
+            generator.generate();
+            last = generator.generate();
+            Assertions.assertEquals(5_100L, mark.leased());
+        }
+
+        try (HighWaterMark mark = new HighWaterMark(file, 100)) {
+            Assertions.assertEquals(5_100L, mark.recovered());
+            ULID.NodeGenerator generator = new ULID.NodeGenerator(new Random(2L), () -> 1_000L, 4, 1, mark);
+            ULID next = generator.generate();
+
+            Assertions.assertEquals(5_101L, next.timestamp());
+            Assertions.assertTrue(last.compareTo(next) < 0);
+            Assertions.assertEquals(5_201L, mark.leased());
+        }
+    }
+
+    @Test
+    public void leasesAheadInsteadOfForcingEveryMillisecond() throws IOException {
+        long[] now = {10_000L};
+        try (HighWaterMark mark = new HighWaterMark(directory.resolve("node.hwm"), 1_000)) {
+            ULID.NodeGenerator generator = new ULID.NodeGenerator(new Random(3L), () -> now[0], 2, 3, mark);
+            for (; now[0] <= 11_000L; now[0]++) {
+                generator.generate();
+                Assertions.assertEquals(11_000L, mark.leased());
+            }
+            generator.generate();
+            Assertions.assertEquals(12_001L, mark.leased());
+        }
+    }
+
+    @Test
+    public void startsOverFromAFileCutShortWhileBeingCreated() throws IOException {
+        for (int size : new int[]{0, 4, 16}) {
+            Path file = Files.write(directory.resolve("node-" + size + ".hwm"), new byte[size]);
+            try (HighWaterMark mark = new HighWaterMark(file, 10)) {
+                Assertions.assertEquals(-1, mark.recovered());
+                mark.issued(50L);
+            }
+            try (HighWaterMark mark = new HighWaterMark(file, 10)) {
+                Assertions.assertEquals(60L, mark.recovered());
+            }
+        }
+    }
+
+    @Test
+    public void closedMarkFailsBeforeAnIdIsIssued() throws IOException {
+        long[] now = {1_000L};
+        HighWaterMark mark = new HighWaterMark(directory.resolve("node.hwm"), 10);
+        ULID.NodeGenerator generator = new ULID.NodeGenerator(new Random(4L), () -> now[0], 2, 1, mark);
+        ULID first = generator.generate();
+        mark.close();
+
+        // within the lease, where issuing would not touch the file
+        Assertions.assertThrows(IllegalStateException.class, generator::generate);
+        now[0] = 2_000L;
+        Assertions.assertThrows(IllegalStateException.class, generator::generate);
+        Assertions.assertEquals(1_010L, mark.leased());
+
+        try (HighWaterMark reopened = new HighWaterMark(directory.resolve("node.hwm"), 10)) {
+            ULID.NodeGenerator restarted = new ULID.NodeGenerator(new Random(5L), () -> 1_000L, 2, 1, reopened);
+            Assertions.assertTrue(first.compareTo(restarted.generate()) < 0);
+        }
+    }
+
+    @Test
+    public void rejectsForeignFiles() throws IOException {
+        Path file = Files.write(directory.resolve("other"), new byte[]{1, 2, 3});
+
+        Assertions.assertThrows(IllegalStateException.class, () -> new HighWaterMark(file));
+    }
+}
@@ -3,10 +3,26 @@ package io.github.chrisalbright.ulid;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
@@ -132,4 +148,483 @@ public class ULIDTest {
         Assertions.assertTrue(runTime <= TimeUnit.MILLISECONDS.toNanos(maxTime), String.format("Expected to generate %d ulids in under %d, but it took %d", ID_COUNT, maxTime, TimeUnit.NANOSECONDS.toMillis(runTime)));
     }
 
+    @Test
+    public void concurrentUlidsGeneratedInSameMillisecondAreMonotonicallyIncreasing() {
+        long currentTimestamp = System.currentTimeMillis();
+        Supplier<Long> sameMillisecondGenerator = () -> currentTimestamp;
+        Random r = new Random(1L);
+        ULID.Generator ulid = new ULID.ConcurrentGenerator(r, sameMillisecondGenerator);
+        ULID u1 = ulid.generate();
+        ULID u2 = ulid.generate();
+
+        Assertions.assertEquals(u1.timestamp(), u2.timestamp());
+        Assertions.assertEquals(u1.lsb() + 1, u2.lsb());
+    }
+
+    @Test
+    public void concurrentUlidsDoNotGoBackwardsWhenTheClockDoes() {
+        long[] time = {1_000L};
+        Supplier<Long> clock = () -> time[0];
+        ULID.Generator ulid = new ULID.ConcurrentGenerator(new Random(1L), clock);
+        ULID u1 = ulid.generate();
+        time[0] = 999L;
+        ULID u2 = ulid.generate();
+
+        Assertions.assertEquals(u1.next(), u2);
+    }
+
+    @Test
+    public void concurrentUlidsAreUniqueAndMonotonicPerThread() throws InterruptedException {
+        final int THREADS = 8;
+        final int ID_COUNT = 50_000;
+        ULID.Generator ulid = new ULID.ConcurrentGenerator(new Random(), System::currentTimeMillis);
+        Set<ULID> seen = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[THREADS];
+        boolean[] ordered = new boolean[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                ULID previous = null;
+                boolean inOrder = true;
+                for (int i = 0; i < ID_COUNT; i++) {
+                    ULID u = ulid.generate();
+                    inOrder &= previous == null || previous.compareTo(u) < 0;
+                    seen.add(u);
+                    previous = u;
+                }
+                ordered[thread] = inOrder;
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertEquals(THREADS * ID_COUNT, seen.size());
+        for (boolean inOrder : ordered) {
+            Assertions.assertTrue(inOrder);
+        }
+    }
+
+    @Test
+    public void stripedUlidsGeneratedInSameMillisecondAreMonotonicallyIncreasing() {
+        long currentTimestamp = System.currentTimeMillis();
+        Supplier<Long> sameMillisecondGenerator = () -> currentTimestamp;
+        ULID.Generator ulid = new ULID.StripedGenerator(new Random(1L), sameMillisecondGenerator, 4);
+        ULID u1 = ulid.generate();
+        ULID u2 = ulid.generate();
+
+        Assertions.assertEquals(u1.timestamp(), u2.timestamp());
+        Assertions.assertEquals(u1.lsb() + 1, u2.lsb());
+    }
+
+    @Test
+    public void stripeCountIsRoundedToAPowerOfTwo() {
+        Assertions.assertEquals(1, new ULID.StripedGenerator(new Random(), System::currentTimeMillis, 1).stripes());
+        Assertions.assertEquals(8, new ULID.StripedGenerator(new Random(), System::currentTimeMillis, 5).stripes());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ULID.StripedGenerator(new Random(), System::currentTimeMillis, 0));
+    }
+
+    @Test
+    public void stripedUlidsAreUniqueWhenEveryStripeDrawsTheSameRandomValue() throws InterruptedException {
+        final int THREADS = 4;
+        final int ID_COUNT = 1_000;
+        long currentTimestamp = System.currentTimeMillis();
+        Supplier<Long> sameMillisecondGenerator = () -> currentTimestamp;
+        Random constant = new Random() {
+            @Override
+            public long nextLong() {
+                return 0L;
+            }
+        };
+        ULID.Generator ulid = new ULID.StripedGenerator(constant, sameMillisecondGenerator, THREADS);
+        Set<ULID> seen = ConcurrentHashMap.newKeySet();
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < ID_COUNT; i++) {
+                    seen.add(ulid.generate());
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertEquals(THREADS * ID_COUNT, seen.size());
+    }
+
+    @Test
+    public void ulidsEncodeIntoCallerSuppliedBuffers() {
+        ULID u = new ULID.Generator(new Random(7L), System::currentTimeMillis).generate();
+        String expected = u.toString();
+
+        char[] chars = new char[30];
+        u.encode(chars, 3);
+        Assertions.assertEquals(expected, new String(chars, 3, ULID.ENCODED_LENGTH));
+
+        byte[] ascii = new byte[30];
+        u.encode(ascii, 2);
+        Assertions.assertEquals(expected, new String(ascii, 2, ULID.ENCODED_LENGTH, StandardCharsets.US_ASCII));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(30);
+        direct.position(4);
+        u.encode(direct);
+        Assertions.assertEquals(30, direct.position());
+        direct.position(4);
+        Assertions.assertEquals(u, ULID.parse(direct));
+
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> u.encode(new char[25], 0));
+    }
+
+    @Test
+    public void malformedBuffersKeepTheirPosition() {
+        byte[] ascii = "xx01ARZ3NDEKTSV4RRFFQ69G5FAU".getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer direct = ByteBuffer.allocateDirect(ascii.length);
+        direct.put(ascii);
+        for (ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.wrap(ascii), direct}) {
+            buffer.position(2);
+            Assertions.assertThrows(MalformedULIDException.class, () -> ULID.parse(buffer));
+            Assertions.assertEquals(2, buffer.position());
+        }
+    }
+
+    @Test
+    public void ulidsDecodeFromCallerSuppliedBuffers() {
+        ULID u = new ULID.Generator(new Random(7L), System::currentTimeMillis).generate();
+        String padded = "xx" + u + "yy";
+
+        Assertions.assertEquals(u, ULID.parse(padded, 2));
+        Assertions.assertEquals(u, ULID.parse(new StringBuilder(padded), 2));
+        Assertions.assertEquals(u, ULID.parse(padded.toCharArray(), 2));
+        Assertions.assertEquals(u, ULID.parse(padded.getBytes(StandardCharsets.US_ASCII), 2));
+
+        ByteBuffer heap = ByteBuffer.wrap(padded.getBytes(StandardCharsets.US_ASCII));
+        heap.position(2);
+        Assertions.assertEquals(u, ULID.parse(heap));
+        Assertions.assertEquals(28, heap.position());
+    }
+
+    @Test
+    public void ulidsRoundTripThroughBinaryBuffers() {
+        ULID u = new ULID.Generator(new Random(7L), System::currentTimeMillis).generate();
+
+        byte[] bytes = new byte[20];
+        u.toBytes(bytes, 4);
+        Assertions.assertArrayEquals(u.toBytes(), Arrays.copyOfRange(bytes, 4, 20));
+        Assertions.assertEquals(u, ULID.fromBytes(bytes, 4));
+
+        ByteBuffer little = ByteBuffer.allocate(ULID.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        u.toBytes(little);
+        Assertions.assertArrayEquals(u.toBytes(), little.array());
+        little.flip();
+        Assertions.assertEquals(u, ULID.fromBytes(little));
+    }
+
+    @Test
+    public void parseAcceptsLowerCaseAndCrockfordAliases() {
+        ULID u = ULID.parse("01ARZ3NDEKTSV4RRFFQ69G5FAV");
+
+        Assertions.assertEquals(u, ULID.parse("01arz3ndektsv4rrffq69g5fav"));
+        Assertions.assertEquals(ULID.parse("0110000000000000000000000O"), ULID.parse("OIL0000000000000000000000o"));
+    }
+
+    @Test
+    public void parseRejectsInvalidCharacters() {
+        Assertions.assertThrows(MalformedULIDException.class, () -> ULID.parse("01ARZ3NDEKTSV4RRFFQ69G5FAU"));
+        Assertions.assertThrows(MalformedULIDException.class, () -> ULID.parse("01ARZ3NDEKTSV4RRFFQ69G5FA\u00e9"));
+        Assertions.assertThrows(MalformedULIDException.class, () -> ULID.parse("01ARZ3NDEK-SV4RRFFQ69G5FAV".getBytes(StandardCharsets.US_ASCII), 0));
+        Assertions.assertThrows(MalformedULIDException.class, () -> ULID.parse("01ARZ3NDEKTSV4RRFFQ69G5FA"));
+        Assertions.assertThrows(MalformedULIDException.class, () -> ULID.parse("01ARZ3NDEKTSV4RRFFQ69G5FAVV"));
+    }
+
+    @Test
+    public void parseRejectsValuesAboveTheMaximum() {
+        Assertions.assertThrows(OverflowException.class, () -> ULID.parse("80000000000000000000000000"));
+        Assertions.assertThrows(OverflowException.class, () -> ULID.parse("ZZZZZZZZZZZZZZZZZZZZZZZZZZ".toCharArray(), 0));
+    }
+
+    @Test
+    public void batchesAreConsecutiveAndContinueTheSequence() {
+        long currentTimestamp = System.currentTimeMillis();
+        Supplier<Long> sameMillisecondGenerator = () -> currentTimestamp;
+        ULID.Generator ulid = new ULID.Generator(new Random(1L), sameMillisecondGenerator);
+        ULID[] ids = new ULID[5];
+        ulid.generate(ids, 1, 4);
+
+        Assertions.assertNull(ids[0]);
+        for (int i = 2; i < ids.length; i++) {
+            Assertions.assertEquals(ids[i - 1].next(), ids[i]);
+        }
+        Assertions.assertEquals(ids[4].next(), ulid.generate());
+    }
+
+    @Test
+    public void batchesFillPrimitiveColumnsAndBuffers() {
+        long currentTimestamp = System.currentTimeMillis();
+        Supplier<Long> sameMillisecondGenerator = () -> currentTimestamp;
+        ULID.Generator columns = new ULID.Generator(new Random(1L), sameMillisecondGenerator);
+        ULID.Generator buffer = new ULID.Generator(new Random(1L), sameMillisecondGenerator);
+        ULID.Generator single = new ULID.Generator(new Random(1L), sameMillisecondGenerator);
+        long[] msbs = new long[3];
+        long[] lsbs = new long[3];
+        columns.generate(msbs, lsbs, 0, 3);
+        LongBuffer pairs = LongBuffer.allocate(6);
+        buffer.generate(pairs, 3);
+
+        for (int i = 0; i < 3; i++) {
+            ULID expected = single.generate();
+            Assertions.assertEquals(expected.msb(), msbs[i]);
+            Assertions.assertEquals(expected.lsb(), lsbs[i]);
+            Assertions.assertEquals(expected.msb(), pairs.get(2 * i));
+            Assertions.assertEquals(expected.lsb(), pairs.get(2 * i + 1));
+        }
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> columns.generate(msbs, lsbs, 1, 3));
+    }
+
+    @Test
+    public void batchesCarryIntoTheMostSignificantBits() {
+        Random nearRollover = new Random() {
+            @Override
+            public long nextLong() {
+                return -2L;
+            }
+        };
+        ULID.Generator ulid = new ULID.ConcurrentGenerator(nearRollover, () -> 1L);
+        long[] msbs = new long[3];
+        long[] lsbs = new long[3];
+        ulid.generate(msbs, lsbs, 0, 3);
+
+        Assertions.assertEquals(msbs[0] + 1, msbs[2]);
+        Assertions.assertEquals(0L, lsbs[2]);
+
+        Random atRollover = new Random() {
+            @Override
+            public long nextLong() {
+                return -1L;
+            }
+        };
+        ULID.Generator exhausted = new ULID.ConcurrentGenerator(atRollover, () -> 1L);
+        Assertions.assertThrows(OverflowException.class, () -> exhausted.generate(new ULID[2], 0, 2));
+    }
+
+    @Test
+    public void blocksMatchBatchesAndDoNotOverlap() {
+        ULID[] ids = new ULID[5];
+        new ULID.Generator(new Random(3L), () -> 7L).generate(ids, 0, 5);
+
+        ULID.Generator ulid = new ULID.ConcurrentGenerator(new Random(3L), () -> 7L);
+        Assertions.assertEquals(ids[0], ulid.generateBlock(5));
+        Assertions.assertEquals(ids[4].next(), ulid.generateBlock(1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ulid.generateBlock(0));
+    }
+
+    @Test
+    public void hashCodeIsUnchangedFromObjectsHash() {
+        ULID u = ULID.parse("01ARZ3NDEKTSV4RRFFQ69G5FAV");
+
+        Assertions.assertEquals(Objects.hash(u.msb(), u.lsb()), u.hashCode());
+    }
+
+    @Test
+    public void ulidsDoNotGoBackwardsWhenTheClockDoes() {
+        long[] time = {1_000L};
+        ULID.Generator ulid = new ULID.Generator(new Random(1L), () -> time[0]);
+        ULID u1 = ulid.generate();
+        time[0] = 999L;
+        ULID u2 = ulid.generate();
+        time[0] = 1_001L;
+        ULID u3 = ulid.generate();
+
+        Assertions.assertEquals(u1.next(), u2);
+        Assertions.assertEquals(1_001L, u3.timestamp());
+    }
+
+    @Test
+    public void generatorsAcceptACachedClock() {
+        try (CachedClock clock = new CachedClock()) {
+            ULID.Generator ulid = new ULID.Generator(new Random(), clock);
+            ULID u = ulid.generate();
+
+            Assertions.assertTrue(Math.abs(System.currentTimeMillis() - u.timestamp()) < 1_000);
+        }
+    }
+
+    private static Random constantRandom(long... values) {
+        return new Random() {
+            int next;
+
+            @Override
+            public long nextLong() {
+                return values[next++ % values.length];
+            }
+        };
+    }
+
+    @Test
+    public void exhaustedRandomPartBorrowsTheNextMillisecond() {
+        long[] time = {1L};
+        ULID.Generator ulid = new ULID.Generator(constantRandom(-1L), () -> time[0], OverflowPolicy.BORROW_NEXT_MILLISECOND);
+        ULID u1 = ulid.generate();
+        ULID u2 = ulid.generate();
+        ULID u3 = ulid.generate();
+        time[0] = 5L;
+        ULID u4 = ulid.generate();
+
+        Assertions.assertEquals(1L, u1.timestamp());
+        Assertions.assertEquals(2L, u2.timestamp());
+        Assertions.assertEquals(3L, u3.timestamp());
+        Assertions.assertEquals(5L, u4.timestamp());
+        Assertions.assertEquals(2L, ulid.overflows());
+    }
+
+    @Test
+    public void freshBatchesThatDoNotFitKeepHeadroomInsteadOfOverflowing() {
+        ULID.Generator ulid = new ULID.Generator(constantRandom(-1L, -4L), () -> 1L, OverflowPolicy.BORROW_NEXT_MILLISECOND);
+        ULID[] ids = new ULID[8];
+        ulid.generate(ids, 0, 8);
+
+        Assertions.assertEquals(1L, ids[7].timestamp());
+        Assertions.assertEquals(0x7FFFL, ids[0].msb() & ULID.MSB_MASK);
+        Assertions.assertEquals(1L, ulid.overflows());
+        Assertions.assertThrows(OverflowException.class, () -> new ULID.Generator(constantRandom(-1L, -4L), () -> 1L).generate(new ULID[8], 0, 8));
+    }
+
+    @Test
+    public void concurrentGeneratorsBorrowTheNextMillisecond() {
+        ULID.Generator ulid = new ULID.ConcurrentGenerator(constantRandom(-1L), () -> 1L, OverflowPolicy.BORROW_NEXT_MILLISECOND);
+        ULID previous = ulid.generate();
+        for (int i = 0; i < 10; i++) {
+            ULID u = ulid.generate();
+            Assertions.assertTrue(previous.compareTo(u) < 0);
+            previous = u;
+        }
+
+        Assertions.assertEquals(11L, previous.timestamp());
+        Assertions.assertEquals(10L, ulid.overflows());
+    }
+
+    @Test
+    public void stripesBorrowWithoutLeavingTheirRange() {
+        ULID.Generator ulid = new ULID.StripedGenerator(constantRandom(-1L), () -> 1L, 2, OverflowPolicy.BORROW_NEXT_MILLISECOND);
+        ULID u1 = ulid.generate();
+        ULID u2 = ulid.generate();
+
+        Assertions.assertEquals(u1.msb() & 0x8000L, u2.msb() & 0x8000L);
+        Assertions.assertEquals(2L, u2.timestamp());
+        Assertions.assertEquals(1L, ulid.overflows());
+    }
+
+    @Test
+    public void compareToIsUnsignedLikeTheStringForm() {
+        ULID low = ULID.parse("01ARZ3NDEK0000000000000000");
+        ULID high = ULID.parse("01ARZ3NDEK0008000000000000");
+
+        Assertions.assertTrue(high.lsb() < 0);
+        Assertions.assertTrue(low.compareTo(high) < 0);
+        Assertions.assertTrue(high.compareTo(low) > 0);
+    }
+
+    @Test
+    public void serializedFormsCompareLikeTheirIds() {
+        Random r = new Random(31L);
+        Comparator<byte[]> bytes = ULID.bytesComparator();
+        Comparator<ByteBuffer> buffers = ULID.bufferComparator();
+        for (int i = 0; i < 1_000; i++) {
+            ULID a = ULID.of(r.nextLong() >>> 1, r.nextLong());
+            ULID b = r.nextInt(4) == 0 ? ULID.of(a.msb(), r.nextLong()) : ULID.of(r.nextLong() >>> 1, r.nextLong());
+            int expected = Integer.signum(a.toString().compareTo(b.toString()));
+
+            Assertions.assertEquals(expected, Integer.signum(a.compareTo(b)));
+            Assertions.assertEquals(expected, Integer.signum(bytes.compare(a.toBytes(), b.toBytes())));
+            Assertions.assertEquals(expected, Integer.signum(a.compareTo(b.toBytes(), 0)));
+            ByteBuffer little = ByteBuffer.allocateDirect(ULID.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            b.toBytes(little);
+            little.flip();
+            Assertions.assertEquals(expected, Integer.signum(buffers.compare(ByteBuffer.wrap(a.toBytes()), little)));
+        }
+    }
+
+    @Test
+    public void nodeGeneratorKeepsItsNodeInTheHighRandomBits() {
+        for (int node = 0; node < 8; node++) {
+            ULID.NodeGenerator generator = new ULID.NodeGenerator(new Random(node), () -> 1_000L, 3, node);
+            ULID previous = null;
+            for (int i = 0; i < 100; i++) {
+                ULID ulid = generator.generate();
+                Assertions.assertEquals(node, (ulid.msb() & 0xFFFF) >>> 13);
+                if (previous != null) {
+                    Assertions.assertTrue(previous.compareTo(ulid) < 0);
+                }
+                previous = ulid;
+            }
+        }
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new ULID.NodeGenerator(new Random(), () -> 1L, 3, 8));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new ULID.NodeGenerator(new Random(), () -> 1L, 16, 0));
+    }
+
+    @Test
+    public void readsIdsSerializedByRelease100() throws IOException, ClassNotFoundException {
+        // ULID.parse("01ARZ3NDEKTSV4RRFFQ69G5FAV") written by the 1.0.0 release, before serialVersionUID was pinned
+        String hex = "aced000573720021696f2e6769746875622e6368726973616c6272696768742e756c69642e554c49445fdb68fc98"
+                + "d020ba0200024a00036c73624a00036d736278704c61efb99302bd5b01563e3ab5d3d676";
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            ULID ulid = (ULID) in.readObject();
+            Assertions.assertEquals(ULID.parse("01ARZ3NDEKTSV4RRFFQ69G5FAV"), ulid);
+            Assertions.assertEquals("01ARZ3NDEKTSV4RRFFQ69G5FAV", ulid.toString());
+        }
+        ByteArrayOutputStream current = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(current)) {
+            out.writeObject(ULID.parse("01ARZ3NDEKTSV4RRFFQ69G5FAV"));
+        }
+        Assertions.assertArrayEquals(bytes, current.toByteArray());
+    }
+
+    @Test
+    public void serializesAsItsTwoLongs() throws IOException, ClassNotFoundException {
+        ULID.Generator generator = new ULID.Generator(new Random(37L), () -> 1_000L);
+        List<ULID> ids = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            ids.add(generator.generate());
+        }
+        ByteArrayOutputStream single = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(single)) {
+            out.writeObject(ids.get(0));
+        }
+        ByteArrayOutputStream many = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(many)) {
+            out.writeObject(ids);
+        }
+
+        ByteArrayOutputStream fewer = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(fewer)) {
+            out.writeObject(new ArrayList<>(ids.subList(1, ids.size())));
+        }
+
+        // the two longs plus stream header and class descriptor; each further id in a stream is the two longs plus a
+        // type byte and a 5 byte back reference to the descriptor
+        Assertions.assertEquals(82, single.size());
+        Assertions.assertEquals(ULID.BYTES + 6, many.size() - fewer.size());
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(single.toByteArray()))) {
+            Assertions.assertEquals(ids.get(0), in.readObject());
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(many.toByteArray()))) {
+            Assertions.assertEquals(ids, in.readObject());
+        }
+    }
+
 }
@@ -0,0 +1,98 @@
+package io.github.chrisalbright.ulid;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.function.Supplier;
+
+public class UlidArrayTest {
+
+    private static final Comparator<ULID> UNSIGNED = Comparator
+            .comparing(ULID::msb, Long::compareUnsigned)
+            .thenComparing(ULID::lsb, Long::compareUnsigned);
+
+    @Test
+    public void radixSortMatchesComparisonSort() {
+        Random r = new Random(3L);
+        UlidArray array = new UlidArray(0);
+        ULID[] expected = new ULID[10_000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = ULID.of(r.nextLong() >>> 1, r.nextLong());
+            array.add(expected[i]);
+        }
+        array.sort();
+        Arrays.sort(expected, UNSIGNED);
+
+        Assertions.assertEquals(expected.length, array.size());
+        for (int i = 0; i < expected.length; i++) {
+            Assertions.assertEquals(expected[i], array.get(i));
+        }
+    }
+
+    @Test
+    public void distinctRemovesDuplicatesFromASortedArray() {
+        ULID a = ULID.minFor(1L);
+        ULID b = a.next();
+        UlidArray array = new UlidArray();
+        array.add(b);
+        array.add(a);
+        array.add(b);
+        array.add(a);
+        array.sort();
+
+        Assertions.assertEquals(2, array.distinct());
+        Assertions.assertEquals(a, array.get(0));
+        Assertions.assertEquals(b, array.get(1));
+    }
+
+    @Test
+    public void binarySearchFindsIdsAndInsertionPoints() {
+        UlidArray array = new UlidArray();
+        ULID first = ULID.minFor(10L);
+        array.add(first);
+        array.add(first.next().next());
+
+        Assertions.assertEquals(0, array.binarySearch(first));
+        Assertions.assertEquals(1, array.binarySearch(first.next().next()));
+        Assertions.assertEquals(-2, array.binarySearch(first.next()));
+        Assertions.assertEquals(-1, array.binarySearch(ULID.minFor(9L)));
+    }
+
+    @Test
+    public void timeRangesSelectWholeMilliseconds() {
+        Supplier<Long> clock = new Supplier<Long>() {
+            long time = 1_000L;
+
+            @Override
+            public Long get() {
+                return time++ / 4;
+            }
+        };
+        UlidArray array = new UlidArray();
+        ULID.Generator ulid = new ULID.Generator(new Random(5L), clock);
+        for (int i = 0; i < 40; i++) {
+            array.generate(ulid, 1);
+        }
+        array.sort();
+
+        int from = array.rangeStart(Instant.ofEpochMilli(252L));
+        int to = array.rangeEnd(Instant.ofEpochMilli(254L));
+        Assertions.assertEquals(12, to - from);
+        Assertions.assertEquals(252L, array.get(from).timestamp());
+        Assertions.assertEquals(254L, array.get(to - 1).timestamp());
+    }
+
+    @Test
+    public void generateAppendsConsecutiveIds() {
+        UlidArray array = new UlidArray(1);
+        array.generate(new ULID.Generator(new Random(5L), () -> 7L), 3);
+
+        Assertions.assertEquals(3, array.size());
+        Assertions.assertEquals(array.get(0).next(), array.get(1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> array.get(3));
+    }
+}
@@ -0,0 +1,198 @@
+package io.github.chrisalbright.ulid;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class UlidCacheTest {
+
+    private static List<String> ids(int n) {
+        ULID.Generator generator = new ULID.Generator(new Random(7L), () -> 1_000_000L);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            ids.add(generator.generate().toString());
+        }
+        return ids;
+    }
+
+    @Test
+    public void toStringIsNotMemoizedByDefault() {
+        ULID plain = ULID.parse("01ARZ3NDEKTSV4RRFFQ69G5FAV");
+        Assertions.assertEquals("01ARZ3NDEKTSV4RRFFQ69G5FAV", plain.toString());
+        Assertions.assertNotSame(plain.toString(), plain.toString());
+
+        ULID cached = new UlidCache(16).parse("01arz3ndektsv4rrffq69g5fav");
+        Assertions.assertEquals("01ARZ3NDEKTSV4RRFFQ69G5FAV", cached.toString());
+        Assertions.assertNotSame(cached.toString(), cached.toString());
+    }
+
+    @Test
+    public void memoizesToStringOfCachedInstancesWhenAskedTo() {
+        UlidCache cache = new UlidCache(16, UlidCache.EvictionPolicy.lru(), true);
+        ULID parsed = cache.parse("01arz3ndektsv4rrffq69g5fav");
+        String s = parsed.toString();
+        Assertions.assertEquals("01ARZ3NDEKTSV4RRFFQ69G5FAV", s);
+        Assertions.assertSame(s, parsed.toString());
+
+        ULID interned = cache.intern(ULID.parse("01ARZ3NDEKTSV4RRFFQ69G5FAW"));
+        Assertions.assertSame(interned.toString(), interned.toString());
+    }
+
+    @Test
+    public void returnsOneInstancePerString() {
+        UlidCache cache = new UlidCache(16);
+        ULID first = cache.parse("01ARZ3NDEKTSV4RRFFQ69G5FAV");
+        ULID second = cache.parse("01ARZ3NDEKTSV4RRFFQ69G5FAV");
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(ULID.parse("01ARZ3NDEKTSV4RRFFQ69G5FAV"), first);
+        Assertions.assertEquals(1, cache.getHits());
+        Assertions.assertEquals(1, cache.getMisses());
+        Assertions.assertEquals(0.5, cache.getHitRate());
+        Assertions.assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    public void returnsOneInstancePerIdWhateverTheCase() {
+        UlidCache cache = new UlidCache(16);
+        ULID upper = cache.parse("01ARZ3NDEKTSV4RRFFQ69G5FAV");
+        Assertions.assertSame(upper, cache.parse("01arz3ndektsv4rrffq69g5fav"));
+        Assertions.assertSame(upper, cache.parse("O1ARZ3NDEKTSV4RRFFQ69G5FAV"));
+        Assertions.assertSame(upper, cache.parse("01aRZ3NDEKTSV4RRFFQ69G5FAv"));
+        Assertions.assertSame(cache.parse("01ARZ3NDEKTSV4RRFFQ69G5F11"), cache.parse("01ARZ3NDEKTSV4RRFFQ69G5FiL"));
+        Assertions.assertEquals(2, cache.getSize());
+        Assertions.assertEquals(2, cache.getMisses());
+        Assertions.assertEquals("01ARZ3NDEKTSV4RRFFQ69G5FAV", cache.parse("01arz3ndektsv4rrffq69g5fav").toString());
+    }
+
+    @Test
+    public void internsInstances() {
+        UlidCache cache = new UlidCache(16);
+        ULID parsed = cache.parse("01ARZ3NDEKTSV4RRFFQ69G5FAV");
+        ULID other = ULID.parse("01ARZ3NDEKTSV4RRFFQ69G5FAV");
+        Assertions.assertSame(parsed, cache.intern(other));
+        ULID fresh = ULID.parse("01ARZ3NDEKTSV4RRFFQ69G5FAW");
+        Assertions.assertSame(fresh, cache.intern(fresh));
+        Assertions.assertSame(fresh, cache.parse("01ARZ3NDEKTSV4RRFFQ69G5FAW"));
+    }
+
+    @Test
+    public void doesNotCacheMalformedStrings() {
+        UlidCache cache = new UlidCache(16);
+        Assertions.assertThrows(MalformedULIDException.class, () -> cache.parse("01ARZ3NDEKTSV4RRFFQ69G5FA!"));
+        Assertions.assertEquals(0, cache.getSize());
+        Assertions.assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void rejectsNonPositiveSizes() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new UlidCache(0));
+    }
+
+    @Test
+    public void staysWithinMaximumSize() {
+        UlidCache cache = new UlidCache(1000);
+        for (String id : ids(10_000)) {
+            cache.parse(id);
+        }
+        Assertions.assertTrue(cache.getSize() <= 1000);
+        Assertions.assertEquals(10_000 - cache.getSize(), cache.getEvictions());
+    }
+
+    @Test
+    public void lruEvictsLeastRecentlyUsed() {
+        UlidCache cache = new UlidCache(3, UlidCache.EvictionPolicy.lru());
+        List<String> ids = ids(4);
+        cache.parse(ids.get(0));
+        cache.parse(ids.get(1));
+        cache.parse(ids.get(2));
+        cache.parse(ids.get(0));
+        cache.parse(ids.get(3));
+        Assertions.assertEquals(1, cache.getEvictions());
+
+        long misses = cache.getMisses();
+        cache.parse(ids.get(0));
+        cache.parse(ids.get(2));
+        cache.parse(ids.get(3));
+        Assertions.assertEquals(misses, cache.getMisses());
+        cache.parse(ids.get(1));
+        Assertions.assertEquals(misses + 1, cache.getMisses());
+    }
+
+    @Test
+    public void tinyLfuKeepsHotIdsThroughScans() {
+        List<String> ids = ids(1050);
+        List<String> hot = ids.subList(0, 50);
+        List<String> scan = ids.subList(50, ids.size());
+
+        UlidCache tinyLfu = new UlidCache(64, UlidCache.EvictionPolicy.tinyLfu());
+        UlidCache lru = new UlidCache(64, UlidCache.EvictionPolicy.lru());
+        for (UlidCache cache : new UlidCache[]{tinyLfu, lru}) {
+            for (int i = 0; i < 5; i++) {
+                hot.forEach(cache::parse);
+            }
+            scan.forEach(cache::parse);
+        }
+
+        long misses = tinyLfu.getMisses();
+        hot.forEach(tinyLfu::parse);
+        Assertions.assertEquals(misses, tinyLfu.getMisses());
+
+        misses = lru.getMisses();
+        hot.forEach(lru::parse);
+        Assertions.assertEquals(misses + hot.size(), lru.getMisses());
+    }
+
+    @Test
+    public void sharedAcrossThreads() throws Exception {
+        UlidCache cache = new UlidCache(4096);
+        List<String> ids = ids(2000);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                tasks.add(pool.submit(() -> {
+                    for (int round = 0; round < 10; round++) {
+                        for (String id : ids) {
+                            Assertions.assertEquals(id, cache.parse(id).toString());
+                        }
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        Assertions.assertEquals(2000, cache.getSize());
+        Assertions.assertEquals(80_000, cache.getHits() + cache.getMisses());
+        for (String id : ids) {
+            Assertions.assertSame(cache.parse(id), cache.parse(id));
+        }
+    }
+
+    @Test
+    public void registersMBean() throws JMException {
+        UlidCache cache = new UlidCache(16);
+        cache.parse("01ARZ3NDEKTSV4RRFFQ69G5FAV");
+        ObjectName name = cache.register("test-cache");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            Assertions.assertEquals(1L, server.getAttribute(name, "Misses"));
+            Assertions.assertEquals(16, server.getAttribute(name, "MaximumSize"));
+        } finally {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.chrisalbright.ulid;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+public class UlidCodecTest {
+
+    @Test
+    public void encodeMatchesToString() {
+        Random r = new Random(19L);
+        int count = 1_000;
+        long[] msbs = new long[count];
+        long[] lsbs = new long[count];
+        for (int i = 0; i < count; i++) {
+            msbs[i] = i < 2 ? -i : r.nextLong();
+            lsbs[i] = i < 2 ? -i : r.nextLong();
+        }
+        byte[] ascii = new byte[count * 27];
+        UlidCodec.encode(msbs, lsbs, 0, count, ascii, 0, 27);
+
+        for (int i = 0; i < count; i++) {
+            String record = new String(ascii, i * 27, ULID.ENCODED_LENGTH, StandardCharsets.US_ASCII);
+            Assertions.assertEquals(ULID.of(msbs[i], lsbs[i]).toString(), record);
+        }
+    }
+
+    @Test
+    public void decodeRoundTripsThroughBuffers() {
+        ULID.Generator generator = new ULID.Generator(new Random(23L), System::currentTimeMillis);
+        int count = 700;
+        long[] msbs = new long[count];
+        long[] lsbs = new long[count];
+        generator.generate(msbs, lsbs, 0, count);
+
+        for (ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate(count * 26), ByteBuffer.allocateDirect(count * 26)}) {
+            UlidCodec.encode(msbs, lsbs, 0, count, buffer);
+            Assertions.assertFalse(buffer.hasRemaining());
+            buffer.flip();
+            long[] decodedMsbs = new long[count];
+            long[] decodedLsbs = new long[count];
+            UlidCodec.decode(buffer, decodedMsbs, decodedLsbs, 0, count);
+
+            Assertions.assertArrayEquals(msbs, decodedMsbs);
+            Assertions.assertArrayEquals(lsbs, decodedLsbs);
+        }
+    }
+
+    @Test
+    public void decodeAcceptsLowerCaseAndAliases() {
+        byte[] ascii = "01arz3ndektsv4rrffq69g5oil".getBytes(StandardCharsets.US_ASCII);
+        long[] msbs = new long[1];
+        long[] lsbs = new long[1];
+        UlidCodec.decode(ascii, 0, msbs, lsbs, 0, 1);
+
+        Assertions.assertEquals(ULID.parse(new String(ascii, StandardCharsets.US_ASCII)), ULID.of(msbs[0], lsbs[0]));
+    }
+
+    @Test
+    public void validateReportsEveryInvalidRecord() {
+        String[] records = {
+                "01ARZ3NDEKTSV4RRFFQ69G5FAV",
+                "01ARZ3NDEKTSV4RRFFQ69G5FAU",
+                "81ARZ3NDEKTSV4RRFFQ69G5FAV",
+                "7ZZZZZZZZZZZZZZZZZZZZZZZZZ",
+                "0_ARZ3NDEKTSV4RRFFQ69G5FAV",
+                "01ARZ3NDEKTSV4RRFFQ69G5FA\u00e9",
+        };
+        byte[] ascii = String.join("", records).getBytes(StandardCharsets.ISO_8859_1);
+
+        Assertions.assertArrayEquals(new int[]{1, 2, 4, 5}, UlidCodec.validate(ascii, 0, records.length));
+        MalformedULIDException e = Assertions.assertThrows(MalformedULIDException.class,
+                () -> UlidCodec.decode(ascii, 0, new long[6], new long[6], 0, records.length));
+        Assertions.assertTrue(e.getMessage().contains("record 1"));
+    }
+
+    @Test
+    public void decodeAgreesWithParseForEveryByteAtEveryPosition() {
+        byte[] valid = "01ARZ3NDEKTSV4RRFFQ69G5FAV".getBytes(StandardCharsets.US_ASCII);
+        long[] msbs = new long[1];
+        long[] lsbs = new long[1];
+        for (int position = 0; position < ULID.ENCODED_LENGTH; position++) {
+            for (int c = 0; c < 256; c++) {
+                byte[] ascii = valid.clone();
+                ascii[position] = (byte) c;
+                ULID expected;
+                try {
+                    expected = ULID.parse(ascii, 0);
+                } catch (MalformedULIDException | OverflowException e) {
+                    expected = null;
+                }
+                String context = "byte " + c + " at " + position;
+                if (expected == null) {
+                    Assertions.assertArrayEquals(new int[]{0}, UlidCodec.validate(ascii, 0, 1), context);
+                    Assertions.assertThrows(MalformedULIDException.class,
+                            () -> UlidCodec.decode(ascii, 0, msbs, lsbs, 0, 1), context);
+                } else {
+                    Assertions.assertArrayEquals(new int[0], UlidCodec.validate(ascii, 0, 1), context);
+                    UlidCodec.decode(ascii, 0, msbs, lsbs, 0, 1);
+                    Assertions.assertEquals(expected, ULID.of(msbs[0], lsbs[0]), context);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void failedBufferDecodeLeavesThePositionUnchanged() {
+        int count = 600;
+        long[] msbs = new long[count];
+        long[] lsbs = new long[count];
+        new ULID.Generator(new Random(29L), () -> 1_000L).generate(msbs, lsbs, 0, count);
+        for (ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate(count * 26 + 3), ByteBuffer.allocateDirect(count * 26 + 3)}) {
+            buffer.position(3);
+            UlidCodec.encode(msbs, lsbs, 0, count, buffer);
+            // a bad record in the last chunk, after earlier chunks were decoded
+            buffer.put(3 + (count - 1) * 26, (byte) 'U');
+            buffer.position(3);
+
+            MalformedULIDException e = Assertions.assertThrows(MalformedULIDException.class,
+                    () -> UlidCodec.decode(buffer, new long[count], new long[count], 0, count));
+            Assertions.assertTrue(e.getMessage().contains("record " + (count - 1)), e.getMessage());
+            Assertions.assertEquals(3, buffer.position());
+        }
+    }
+}
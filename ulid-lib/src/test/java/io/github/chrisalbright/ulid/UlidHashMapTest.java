@@ -0,0 +1,47 @@
+package io.github.chrisalbright.ulid;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class UlidHashMapTest {
+
+    @Test
+    public void behavesLikeAHashMapUnderRandomOperations() {
+        Random r = new Random(13L);
+        UlidHashMap<Integer> map = new UlidHashMap<>(0);
+        Map<ULID, Integer> expected = new HashMap<>();
+        ULID base = ULID.minFor(1_000L);
+        for (int i = 0; i < 100_000; i++) {
+            ULID key = ULID.of(base.msb(), r.nextInt(2_000));
+            switch (r.nextInt(3)) {
+                case 0:
+                    Assertions.assertEquals(expected.put(key, i), map.put(key, i));
+                    break;
+                case 1:
+                    Assertions.assertEquals(expected.remove(key), map.remove(key.msb(), key.lsb()));
+                    break;
+                default:
+                    Assertions.assertEquals(expected.get(key), map.get(key.msb(), key.lsb()));
+            }
+            Assertions.assertEquals(expected.size(), map.size());
+        }
+        Map<ULID, Integer> visited = new HashMap<>();
+        map.forEach(visited::put);
+        Assertions.assertEquals(expected, visited);
+    }
+
+    @Test
+    public void theAllZeroIdIsAnOrdinaryKey() {
+        UlidHashMap<String> map = new UlidHashMap<>();
+
+        Assertions.assertNull(map.put(0L, 0L, "zero"));
+        Assertions.assertEquals("zero", map.get(ULID.minFor(0L)));
+        Assertions.assertTrue(map.containsKey(0L, 0L));
+        Assertions.assertEquals("zero", map.remove(0L, 0L));
+        Assertions.assertFalse(map.containsKey(0L, 0L));
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.chrisalbright.ulid;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class UlidHashSetTest {
+
+    @Test
+    public void behavesLikeAHashSetUnderRandomOperations() {
+        Random r = new Random(11L);
+        UlidHashSet set = new UlidHashSet(0);
+        Set<ULID> expected = new HashSet<>();
+        ULID base = ULID.minFor(1_000L);
+        for (int i = 0; i < 100_000; i++) {
+            // a narrow key range forces collisions, long probe chains and removals in the middle of them
+            ULID key = ULID.of(base.msb(), r.nextInt(2_000));
+            if (r.nextBoolean()) {
+                Assertions.assertEquals(expected.add(key), set.add(key));
+            } else {
+                Assertions.assertEquals(expected.remove(key), set.remove(key.msb(), key.lsb()));
+            }
+            Assertions.assertEquals(expected.size(), set.size());
+        }
+        for (ULID key : expected) {
+            Assertions.assertTrue(set.contains(key.msb(), key.lsb()));
+        }
+        Set<ULID> visited = new HashSet<>();
+        set.forEach(visited::add);
+        Assertions.assertEquals(expected, visited);
+    }
+
+    @Test
+    public void idsSharingTheXorOfTheirHalvesSpreadOverTheTable() {
+        Random r = new Random(13L);
+        int mask = (1 << 14) - 1;
+        Set<Integer> slots = new HashSet<>();
+        for (int i = 0; i < 4_096; i++) {
+            long msb = r.nextLong();
+            slots.add(Util.hash(msb, msb ^ 0x5A5A5A5A5A5A5A5AL) & mask);
+        }
+        // about 3,600 distinct slots are expected for random hashes
+        Assertions.assertTrue(slots.size() > 3_400, "slots " + slots.size());
+        Assertions.assertNotEquals(Util.hash(1L, 2L), Util.hash(2L, 1L));
+    }
+
+    @Test
+    public void theAllZeroIdIsAnOrdinaryMember() {
+        UlidHashSet set = new UlidHashSet();
+        ULID zero = ULID.minFor(0L);
+
+        Assertions.assertFalse(set.contains(zero));
+        Assertions.assertTrue(set.add(zero));
+        Assertions.assertFalse(set.add(zero));
+        Assertions.assertTrue(set.contains(0L, 0L));
+        Assertions.assertEquals(1, set.size());
+        Assertions.assertTrue(set.remove(zero));
+        Assertions.assertTrue(set.isEmpty());
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.chrisalbright.ulid;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+public class UlidIndexTest {
+
+    @Test
+    public void iteratesInOrderWhenAppendedOutOfOrder() {
+        Random r = new Random(5L);
+        UlidIndex index = new UlidIndex(100);
+        List<ULID> expected = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ULID ulid = ULID.of((1_000L + r.nextInt(5_000)) << 16 | r.nextInt(1 << 16), r.nextLong());
+            expected.add(ulid);
+            index.add(ulid);
+        }
+        Collections.sort(expected);
+
+        Assertions.assertEquals(expected.size(), index.size());
+        Assertions.assertEquals(50, index.segments());
+        Assertions.assertEquals(expected, index.stream().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void rangeMatchesATreeSet() {
+        Random r = new Random(7L);
+        UlidIndex index = new UlidIndex(16);
+        TreeSet<ULID> expected = new TreeSet<>();
+        ULID.Generator generator = new ULID.Generator(r, () -> 10_000L + r.nextInt(1_000));
+        for (int i = 0; i < 5_000; i++) {
+            ULID ulid = generator.generate();
+            expected.add(ulid);
+            index.add(ulid);
+        }
+        for (int i = 0; i < 200; i++) {
+            long from = 9_990L + r.nextInt(1_020);
+            long to = from + r.nextInt(100) - 10;
+            List<ULID> range = index.range(Instant.ofEpochMilli(from), Instant.ofEpochMilli(to))
+                    .collect(Collectors.toList());
+            List<ULID> subSet = from > to ? Collections.emptyList()
+                    : new ArrayList<>(expected.subSet(ULID.minFor(from), true, ULID.maxFor(to), true));
+
+            Assertions.assertEquals(subSet, range);
+            Assertions.assertEquals(subSet.size(), index.count(Instant.ofEpochMilli(from), Instant.ofEpochMilli(to)));
+        }
+    }
+
+    @Test
+    public void floorAndCeilingCrossSegments() {
+        UlidIndex index = new UlidIndex(10);
+        ULID a = ULID.of(5L << 16, 1L);
+        ULID b = ULID.of(25L << 16, -1L);
+        ULID c = ULID.of(47L << 16, 3L);
+        index.add(c);
+        index.add(a);
+        index.add(b);
+
+        Assertions.assertNull(index.floor(ULID.minFor(5L)));
+        Assertions.assertEquals(a, index.floor(a));
+        Assertions.assertEquals(a, index.floor(ULID.minFor(25L)));
+        Assertions.assertEquals(b, index.floor(ULID.minFor(30L)));
+        Assertions.assertEquals(c, index.floor(ULID.maxFor(1_000L)));
+
+        Assertions.assertEquals(a, index.ceiling(ULID.minFor(0L)));
+        Assertions.assertEquals(b, index.ceiling(ULID.maxFor(5L)));
+        Assertions.assertEquals(c, index.ceiling(ULID.maxFor(25L)));
+        Assertions.assertNull(index.ceiling(ULID.maxFor(47L)));
+
+        Assertions.assertTrue(index.contains(b));
+        Assertions.assertFalse(index.contains(b.next()));
+    }
+
+    @Test
+    public void emptyIndex() {
+        UlidIndex index = new UlidIndex();
+
+        Assertions.assertFalse(index.iterator().hasNext());
+        Assertions.assertEquals(0, index.count(Instant.EPOCH, Instant.now()));
+        Assertions.assertNull(index.floor(ULID.maxFor(Instant.now())));
+        Assertions.assertNull(index.ceiling(ULID.minFor(0L)));
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.chrisalbright.ulid;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+public class UlidLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void scansTimeRangesAcrossSegments() throws IOException {
+        Random r = new Random(11L);
+        ULID.Generator generator = new ULID.Generator(r, ticking(r));
+        List<ULID> ids = new ArrayList<>();
+        try (UlidLog log = new UlidLog(directory, Integer.BYTES, 100)) {
+            for (int i = 0; i < 1_000; i++) {
+                ULID ulid = generator.generate();
+                ids.add(ulid);
+                log.append(ulid, ByteBuffer.allocate(Integer.BYTES).putInt(0, i));
+            }
+            Assertions.assertEquals(1_000, log.size());
+
+            for (int i = 0; i < 100; i++) {
+                long from = 1_000L + r.nextInt(300);
+                long to = from + r.nextInt(50);
+                List<ULID> scanned = new ArrayList<>();
+                log.scan(Instant.ofEpochMilli(from), Instant.ofEpochMilli(to), (msb, lsb, payload) -> {
+                    ULID ulid = ULID.of(msb, lsb);
+                    Assertions.assertEquals(ids.get(payload.getInt(payload.position())), ulid);
+                    scanned.add(ulid);
+                });
+                List<ULID> expected = new ArrayList<>();
+                for (ULID ulid : ids) {
+                    if (ulid.timestamp() >= from && ulid.timestamp() <= to) {
+                        expected.add(ulid);
+                    }
+                }
+                Assertions.assertEquals(expected, scanned);
+            }
+        }
+    }
+
+    @Test
+    public void reopensAndRecoversUnforcedRecords() throws IOException {
+        ULID.Generator generator = new ULID.Generator(new Random(13L), ticking(new Random(17L)));
+        List<ULID> ids = new ArrayList<>();
+        UlidLog log = new UlidLog(directory, 0, 64);
+        for (int i = 0; i < 150; i++) {
+            ids.add(generator.generate());
+            log.append(ids.get(i));
+        }
+        log.force();
+        for (int i = 150; i < 200; i++) {
+            ids.add(generator.generate());
+            log.append(ids.get(i));
+        }
+
+        // simulate a record torn after its lsb was written
+        try (FileChannel channel = FileChannel.open(directory.resolve("0000000003.ulog"), StandardOpenOption.WRITE)) {
+            ByteBuffer torn = ByteBuffer.allocate(Long.BYTES).putLong(0, 42L);
+            channel.write(torn, 32 + 8 * (ULID.BYTES + Integer.BYTES) + Long.BYTES);
+        }
+
+        UlidLog reopened = new UlidLog(directory, 0, 64);
+        Assertions.assertEquals(200, reopened.size());
+        for (int i = 0; i < 200; i++) {
+            Assertions.assertEquals(ids.get(i), reopened.get(i), "index " + i);
+        }
+        ULID next = generator.generate();
+        reopened.append(next);
+        Assertions.assertEquals(next, reopened.get(200));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> reopened.append(ids.get(0)));
+        reopened.close();
+    }
+
+    @Test
+    public void dropsUnforcedRecordsThatFailTheirChecksum() throws IOException {
+        ULID.Generator generator = new ULID.Generator(new Random(19L), ticking(new Random(23L)));
+        List<ULID> ids = new ArrayList<>();
+        UlidLog log = new UlidLog(directory, Long.BYTES, 64);
+        for (int i = 0; i < 100; i++) {
+            ids.add(generator.generate());
+            log.append(ids.get(i), ByteBuffer.allocate(Long.BYTES).putLong(0, i));
+        }
+        log.force();
+        for (int i = 100; i < 120; i++) {
+            log.append(generator.generate(), ByteBuffer.allocate(Long.BYTES).putLong(0, i));
+        }
+
+        // the id of record 110 reached storage but its payload did not, so it still sorts after record 109
+        try (FileChannel channel = FileChannel.open(directory.resolve("0000000001.ulog"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES), 32 + 46 * (ULID.BYTES + Long.BYTES + Integer.BYTES) + ULID.BYTES);
+        }
+
+        try (UlidLog reopened = new UlidLog(directory, Long.BYTES, 64)) {
+            Assertions.assertEquals(110, reopened.size());
+            for (int i = 0; i < 100; i++) {
+                Assertions.assertEquals(ids.get(i), reopened.get(i), "index " + i);
+                Assertions.assertEquals(i, reopened.payload(i).getLong(reopened.payload(i).position()));
+            }
+        }
+    }
+
+    @Test
+    public void acceptsIdsWithAZeroMsb() throws IOException {
+        try (UlidLog log = new UlidLog(directory, 0, 16)) {
+            log.append(ULID.of(0L, 0L));
+            log.append(ULID.of(0L, 1L));
+        }
+        try (UlidLog reopened = new UlidLog(directory, 0, 16)) {
+            Assertions.assertEquals(2, reopened.size());
+            Assertions.assertEquals(ULID.of(0L, 1L), reopened.get(1));
+        }
+    }
+
+    @Test
+    public void rejectsUseAfterClose() throws IOException {
+        UlidLog log = new UlidLog(directory, 0, 16);
+        log.append(ULID.minFor(1L));
+        log.close();
+        log.close();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> log.append(ULID.minFor(2L)));
+        Assertions.assertThrows(IllegalStateException.class, () -> log.get(0));
+        Assertions.assertThrows(IllegalStateException.class, () -> log.forEach((msb, lsb, payload) -> { }));
+    }
+
+    @Test
+    public void rejectsMismatchedSegments() throws IOException {
+        new UlidLog(directory, 8, 16).append(ULID.minFor(1L));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> new UlidLog(directory, 4, 16));
+    }
+
+    private static LongSupplier ticking(Random r) {
+        long[] now = {1_000L};
+        return () -> now[0] += r.nextInt(2);
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.chrisalbright.ulid;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class UlidSequencesTest {
+
+    @Test
+    public void deltaEncodingOfMonotonicIdsIsCompact() throws IOException {
+        long[] now = {1_000_000L};
+        Random r = new Random(29L);
+        ULID.Generator generator = new ULID.Generator(r, () -> now[0] += r.nextInt(100) == 0 ? 1 : 0);
+        UlidArray ids = new UlidArray();
+        ids.generate(generator, 10_000);
+
+        byte[] plain = write(ids, false);
+        byte[] delta = write(ids, true);
+
+        Assertions.assertTrue(plain.length > 16 * ids.size());
+        Assertions.assertTrue(delta.length < 3 * ids.size(), "delta encoded to " + delta.length + " bytes");
+        assertSame(ids, UlidSequences.read(new DataInputStream(new ByteArrayInputStream(plain))));
+        assertSame(ids, UlidSequences.read(new DataInputStream(new ByteArrayInputStream(delta))));
+    }
+
+    @Test
+    public void deltaRoundTripsBorrowsAndGaps() {
+        List<ULID> ids = new ArrayList<>();
+        Random r = new Random(31L);
+        for (int i = 0; i < 2_000; i++) {
+            ids.add(ULID.of(r.nextLong(), r.nextLong()));
+        }
+        ids.add(ULID.of(5L << 16 | 3, -1L));
+        ids.add(ULID.of(5L << 16 | 4, 0L));
+        ids.add(ULID.of(5L << 16 | 4, 0L));
+        ids.add(ULID.of(-1L, -1L));
+        Collections.sort(ids);
+
+        for (ByteOrder order : Arrays.asList(ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(ids.size() * 20).order(order);
+            UlidSequences.write(buffer, ids, true);
+            buffer.flip();
+            UlidArray read = UlidSequences.read(buffer);
+
+            Assertions.assertFalse(buffer.hasRemaining());
+            Assertions.assertEquals(ids.size(), read.size());
+            for (int i = 0; i < ids.size(); i++) {
+                Assertions.assertEquals(ids.get(i), read.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void deltaEncodingRejectsDescendingIds() {
+        List<ULID> ids = Arrays.asList(ULID.minFor(2L), ULID.minFor(1L));
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> UlidSequences.write(ByteBuffer.allocate(64), ids, true));
+        UlidSequences.write(ByteBuffer.allocate(64), ids, false);
+    }
+
+    private static byte[] write(UlidArray ids, boolean delta) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        UlidSequences.write(new DataOutputStream(bytes), ids, delta);
+        return bytes.toByteArray();
+    }
+
+    private static void assertSame(UlidArray expected, UlidArray actual) {
+        Assertions.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assertions.assertEquals(expected.get(i), actual.get(i));
+        }
+    }
+}
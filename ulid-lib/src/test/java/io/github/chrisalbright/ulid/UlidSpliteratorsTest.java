@@ -0,0 +1,88 @@
+package io.github.chrisalbright.ulid;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+public class UlidSpliteratorsTest {
+
+    @Test
+    public void windowsCoverTheRangeWithoutGaps() {
+        Instant from = Instant.ofEpochMilli(1_000L);
+        Instant to = Instant.ofEpochMilli(1_999L);
+        Spliterator<UlidSpliterators.Range> windows = UlidSpliterators.windows(from, to, Duration.ofMillis(300));
+
+        Assertions.assertEquals(4, windows.estimateSize());
+        Assertions.assertTrue(windows.hasCharacteristics(Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.SUBSIZED));
+        List<UlidSpliterators.Range> ranges = StreamSupport.stream(windows, true).collect(Collectors.toList());
+
+        Assertions.assertEquals(ULID.minFor(from), ranges.get(0).min());
+        Assertions.assertEquals(ULID.maxFor(to), ranges.get(3).max());
+        for (int i = 1; i < ranges.size(); i++) {
+            long start = ranges.get(i).min().timestamp();
+            Assertions.assertEquals(ULID.minFor(start), ranges.get(i).min());
+            Assertions.assertEquals(ULID.maxFor(start - 1), ranges.get(i - 1).max());
+        }
+        Assertions.assertEquals(ULID.maxFor(1_899L), ranges.get(2).max());
+    }
+
+    @Test
+    public void windowsSplitEvenly() {
+        Spliterator<UlidSpliterators.Range> windows = UlidSpliterators.windows(ULID.minFor(0L), ULID.maxFor(999L), 10);
+        Spliterator<UlidSpliterators.Range> prefix = windows.trySplit();
+
+        Assertions.assertEquals(50, prefix.estimateSize());
+        Assertions.assertEquals(50, windows.estimateSize());
+        Assertions.assertTrue(prefix.tryAdvance(range -> Assertions.assertEquals(ULID.minFor(0L), range.min())));
+        Assertions.assertTrue(windows.tryAdvance(range -> Assertions.assertEquals(ULID.minFor(500L), range.min())));
+        Assertions.assertEquals(0, UlidSpliterators.windows(ULID.minFor(2L), ULID.maxFor(1L), 10).estimateSize());
+    }
+
+    @Test
+    public void arraySplitsAtTheMiddleMillisecond() {
+        UlidArray array = new UlidArray();
+        Random r = new Random(41L);
+        for (int ts = 0; ts < 100; ts++) {
+            for (int i = 0; i < 10 + r.nextInt(10); i++) {
+                array.add(ULID.minFor(1_000L + ts).msb() | r.nextInt(1 << 16), r.nextLong());
+            }
+        }
+        array.sort();
+        Spliterator<ULID> suffix = UlidSpliterators.of(array);
+        Spliterator<ULID> prefix = suffix.trySplit();
+
+        Assertions.assertEquals(array.size(), prefix.estimateSize() + suffix.estimateSize());
+        List<ULID> first = new ArrayList<>();
+        prefix.forEachRemaining(first::add);
+        Assertions.assertEquals(1_049L, first.get(first.size() - 1).timestamp());
+        Assertions.assertTrue(suffix.tryAdvance(ulid -> Assertions.assertEquals(1_050L, ulid.timestamp())));
+    }
+
+    @Test
+    public void parallelStreamOverAnArrayRangeKeepsOrder() {
+        UlidArray array = new UlidArray();
+        long[] now = {5_000L};
+        array.generate(new ULID.Generator(new Random(43L), () -> now[0]++), 10_000);
+        for (int i = 0; i < 1_000; i++) {
+            array.generate(new ULID.Generator(new Random(i), () -> 9_000L), 3);
+        }
+        array.sort();
+
+        List<ULID> expected = new ArrayList<>();
+        for (int i = array.rangeStart(Instant.ofEpochMilli(6_000L)); i < array.size(); i++) {
+            expected.add(array.get(i));
+        }
+        Spliterator<ULID> spliterator = UlidSpliterators.of(array, Instant.ofEpochMilli(6_000L), Instant.ofEpochMilli(20_000L));
+
+        Assertions.assertEquals(expected.size(), spliterator.estimateSize());
+        Assertions.assertEquals(expected, StreamSupport.stream(spliterator, true).collect(Collectors.toList()));
+    }
+}